@@ -1,5 +1,12 @@
 package CreationalDesignPattern;
 
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 /**
  * ✅ Definition:
  * The Abstract Factory Pattern provides an interface to create families of related objects without specifying their
@@ -71,6 +78,11 @@ public class AbstractFactory {
     public interface GameFactory {
         Vehicle createVehicle();
         Weapon createWeapon();
+
+        // Component values for this family's entities in an EntityStore
+        default EntityStats entityStats() {
+            return EntityStats.DEFAULT;
+        }
     }
     public class FuturisticFactory implements GameFactory {
         public Vehicle createVehicle() {
@@ -80,6 +92,10 @@ public class AbstractFactory {
         public Weapon createWeapon() {
             return new LaserGun();
         }
+
+        public EntityStats entityStats() {
+            return EntityStats.FUTURISTIC;
+        }
     }
     public class MedievalFactory implements GameFactory {
         public Vehicle createVehicle() {
@@ -89,7 +105,367 @@ public class AbstractFactory {
         public Weapon createWeapon() {
             return new Sword();
         }
+
+        public EntityStats entityStats() {
+            return EntityStats.MEDIEVAL;
+        }
     }
+
+    // Per-family component values: how fast the vehicle moves, how hard the weapon hits, how much ammo it has
+    public static class EntityStats {
+        public static final int UNLIMITED_AMMO = -1;
+
+        static final EntityStats DEFAULT = new EntityStats(1f, 1f, UNLIMITED_AMMO);
+        static final EntityStats FUTURISTIC = new EntityStats(120f, 40f, 30);   // flying car + laser gun
+        static final EntityStats MEDIEVAL = new EntityStats(15f, 12f, UNLIMITED_AMMO);  // horse + sword
+
+        final float vehicleSpeed;
+        final float weaponDamage;
+        final int ammo;
+
+        public EntityStats(float vehicleSpeed, float weaponDamage, int ammo) {
+            this.vehicleSpeed = vehicleSpeed;
+            this.weaponDamage = weaponDamage;
+            this.ammo = ammo;
+        }
+    }
+
+    /**
+     * 🧱 Columnar (struct-of-arrays) storage for vehicle + weapon entities.
+     *
+     * Instead of one heap object per Vehicle and Weapon, each component lives in its own primitive array
+     * and an entity is just an int handle. driveAll() and useAll() walk those arrays front to back,
+     * so the CPU streams through contiguous memory with no pointer chasing and no virtual calls.
+     *
+     * Handles stay valid across despawns: a handle maps to a dense index, and despawn moves the
+     * last entity into the freed slot so the arrays never have holes.
+     *
+     * ⚡ A handle carries its slot's generation, bumped on every despawn, so a stale handle or a second
+     * despawn of the same entity is rejected with IllegalArgumentException instead of corrupting the store.
+     * The generation has 8 bits: a handle kept across exactly 256 reuses of its slot looks valid again.
+     */
+    public static class EntityStore {
+        private static final int SLOT_BITS = 24;
+        private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+        private static final int GENERATION_MASK = (1 << (32 - SLOT_BITS)) - 1;
+
+        // Dense component columns, valid for [0, size)
+        private float[] position;
+        private float[] speed;
+        private float[] damage;
+        private float[] damageDealt;
+        private int[] ammo;
+        private int[] slotOfIndex;
+        private int size;
+
+        // Sparse side: slot -> dense index, with a free list threaded through unused slots
+        private int[] indexOfSlot;
+        private int[] generation;
+        private int nextSlot;
+        private int freeSlot = -1;
+
+        public EntityStore(int capacity) {
+            capacity = Math.max(capacity, 16);
+            position = new float[capacity];
+            speed = new float[capacity];
+            damage = new float[capacity];
+            damageDealt = new float[capacity];
+            ammo = new int[capacity];
+            slotOfIndex = new int[capacity];
+            indexOfSlot = new int[capacity];
+            generation = new int[capacity];
+        }
+
+        // Adds one vehicle + weapon entity with the family's component values; returns its handle
+        public int spawn(GameFactory family) {
+            if (size == position.length) {
+                grow();
+            }
+            int slot;
+            if (freeSlot >= 0) {
+                slot = freeSlot;
+                freeSlot = indexOfSlot[slot];
+            } else {
+                if (nextSlot > SLOT_MASK) {
+                    throw new IllegalStateException("EntityStore is limited to " + (SLOT_MASK + 1) + " entities");
+                }
+                slot = nextSlot++;
+            }
+            EntityStats stats = family.entityStats();
+            int index = size++;
+            position[index] = 0f;
+            speed[index] = stats.vehicleSpeed;
+            damage[index] = stats.weaponDamage;
+            damageDealt[index] = 0f;
+            ammo[index] = stats.ammo;
+            slotOfIndex[index] = slot;
+            indexOfSlot[slot] = index;
+            return generation[slot] << SLOT_BITS | slot;
+        }
+
+        public void despawn(int handle) {
+            int index = indexOf(handle);
+            int slot = handle & SLOT_MASK;
+            int last = --size;
+            if (index != last) {
+                position[index] = position[last];
+                speed[index] = speed[last];
+                damage[index] = damage[last];
+                damageDealt[index] = damageDealt[last];
+                ammo[index] = ammo[last];
+                int moved = slotOfIndex[last];
+                slotOfIndex[index] = moved;
+                indexOfSlot[moved] = index;
+            }
+            generation[slot] = (generation[slot] + 1) & GENERATION_MASK;  // outstanding handles go stale
+            indexOfSlot[slot] = freeSlot;
+            freeSlot = slot;
+        }
+
+        // True while the entity behind this handle has not been despawned
+        public boolean isAlive(int handle) {
+            int slot = handle & SLOT_MASK;
+            return slot < nextSlot && generation[slot] == handle >>> SLOT_BITS;
+        }
+
+        private int indexOf(int handle) {
+            if (!isAlive(handle)) {
+                throw new IllegalArgumentException("Stale or unknown entity handle: " + handle);
+            }
+            return indexOfSlot[handle & SLOT_MASK];
+        }
+
+        // Every vehicle moves speed * dt
+        public void driveAll(float dt) {
+            float[] position = this.position;
+            float[] speed = this.speed;
+            for (int i = 0; i < size; i++) {
+                position[i] += speed[i] * dt;
+            }
+        }
+
+        // Every weapon with ammo left fires once. An empty weapon stays empty (like ChargedLaserGun): no reload
+        public void useAll() {
+            int[] ammo = this.ammo;
+            float[] damage = this.damage;
+            float[] damageDealt = this.damageDealt;
+            for (int i = 0; i < size; i++) {
+                int rounds = ammo[i];
+                if (rounds != 0) {
+                    ammo[i] = rounds > 0 ? rounds - 1 : rounds;
+                    damageDealt[i] += damage[i];
+                }
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public float positionOf(int handle) {
+            return position[indexOf(handle)];
+        }
+
+        public float damageDealtBy(int handle) {
+            return damageDealt[indexOf(handle)];
+        }
+
+        public int ammoOf(int handle) {
+            return ammo[indexOf(handle)];
+        }
+
+        /**
+         * One {@link GameLoop} tick over dense indexes [from, to): reads this store and writes {@code next},
+         * which holds the same entities at the same indexes. Weapons fire as in useAll(): an empty one stays
+         * empty. Only {@code retheme} reloads: every entity takes the theme's speed, damage and ammo.
+         */
+        void stepInto(EntityStore next, int from, int to, float dt, EntityStats theme, boolean retheme) {
+            float[] positionIn = position;
+            float[] positionOut = next.position;
+            float[] dealtIn = damageDealt;
+            float[] dealtOut = next.damageDealt;
+            float[] speedOut = next.speed;
+            float[] damageOut = next.damage;
+            int[] ammoIn = ammo;
+            int[] ammoOut = next.ammo;
+            for (int i = from; i < to; i++) {
+                float vehicleSpeed = retheme ? theme.vehicleSpeed : speed[i];
+                float weaponDamage = retheme ? theme.weaponDamage : damage[i];
+                int rounds = retheme ? theme.ammo : ammoIn[i];
+                positionOut[i] = positionIn[i] + vehicleSpeed * dt;
+                speedOut[i] = vehicleSpeed;
+                damageOut[i] = weaponDamage;
+                if (rounds == 0) {
+                    ammoOut[i] = 0;
+                    dealtOut[i] = dealtIn[i];
+                } else {
+                    ammoOut[i] = rounds > 0 ? rounds - 1 : rounds;
+                    dealtOut[i] = dealtIn[i] + weaponDamage;
+                }
+            }
+        }
+
+        private void grow() {
+            int capacity = position.length * 2;
+            position = Arrays.copyOf(position, capacity);
+            speed = Arrays.copyOf(speed, capacity);
+            damage = Arrays.copyOf(damage, capacity);
+            damageDealt = Arrays.copyOf(damageDealt, capacity);
+            ammo = Arrays.copyOf(ammo, capacity);
+            slotOfIndex = Arrays.copyOf(slotOfIndex, capacity);
+            indexOfSlot = Arrays.copyOf(indexOfSlot, capacity);
+            generation = Arrays.copyOf(generation, capacity);
+        }
+    }
+    /**
+     * ♻️ Pooled family: a GameFactory that recycles its products instead of allocating new ones.
+     *
+     * Wraps any family (Futuristic, Medieval, ...) and keeps one pool per product kind.
+     * createVehicle()/createWeapon() acquire from the pool; releaseVehicle()/releaseWeapon() hand objects back.
+     *
+     * Each thread keeps a small private cache, so spawn/despawn on one thread never takes a lock;
+     * the shared overflow stack is only touched when that cache is empty or full.
+     */
+    public class PooledGameFactory implements GameFactory {
+        private final GameFactory family;
+        private final EntityPool<Vehicle> vehicles;
+        private final EntityPool<Weapon> weapons;
+
+        public PooledGameFactory(GameFactory family) {
+            this(family, entity -> { }, entity -> { });
+        }
+
+        // Reset hooks run on release, so a recycled entity never leaks state from its previous life
+        public PooledGameFactory(GameFactory family, Consumer<Vehicle> resetVehicle, Consumer<Weapon> resetWeapon) {
+            this.family = family;
+            this.vehicles = new EntityPool<>(family::createVehicle, resetVehicle);
+            this.weapons = new EntityPool<>(family::createWeapon, resetWeapon);
+        }
+
+        public Vehicle createVehicle() {
+            return vehicles.acquire();
+        }
+
+        public Weapon createWeapon() {
+            return weapons.acquire();
+        }
+
+        public EntityStats entityStats() {
+            return family.entityStats();
+        }
+
+        public void releaseVehicle(Vehicle vehicle) {
+            vehicles.release(vehicle);
+        }
+
+        public void releaseWeapon(Weapon weapon) {
+            weapons.release(weapon);
+        }
+
+        public EntityPool<Vehicle> getVehiclePool() {
+            return vehicles;
+        }
+
+        public EntityPool<Weapon> getWeaponPool() {
+            return weapons;
+        }
+    }
+
+    // Acquire/release object pool with a per-thread cache and occupancy metrics
+    public static class EntityPool<T> {
+        private static final int THREAD_CACHE_SIZE = 64;
+        private static final int SHARED_CAPACITY = 64 * 1024;
+
+        private final Supplier<? extends T> factory;
+        private final Consumer<? super T> reset;
+        private final ThreadLocal<ThreadCache> cache = ThreadLocal.withInitial(ThreadCache::new);
+
+        // Overflow stack shared by all threads, guarded by its own monitor
+        private final Object[] shared = new Object[SHARED_CAPACITY];
+        private int sharedSize;
+
+        private final LongAdder created = new LongAdder();
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder released = new LongAdder();
+
+        public EntityPool(Supplier<? extends T> factory, Consumer<? super T> reset) {
+            this.factory = factory;
+            this.reset = reset;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T acquire() {
+            acquired.increment();
+            ThreadCache local = cache.get();
+            if (local.size == 0) {
+                refill(local);
+            }
+            if (local.size > 0) {
+                T entity = (T) local.items[--local.size];
+                local.items[local.size] = null;
+                return entity;
+            }
+            created.increment();
+            return factory.get();
+        }
+
+        public void release(T entity) {
+            reset.accept(entity);
+            released.increment();
+            ThreadCache local = cache.get();
+            if (local.size == THREAD_CACHE_SIZE) {
+                spill(local);
+            }
+            local.items[local.size++] = entity;
+        }
+
+        // Moves half a cache's worth from the shared stack into this thread's cache
+        private synchronized void refill(ThreadCache local) {
+            int take = Math.min(sharedSize, THREAD_CACHE_SIZE / 2);
+            for (int i = 0; i < take; i++) {
+                local.items[local.size++] = shared[--sharedSize];
+                shared[sharedSize] = null;
+            }
+        }
+
+        // Moves half of a full cache to the shared stack; beyond its capacity entities are left to the GC
+        private synchronized void spill(ThreadCache local) {
+            int give = THREAD_CACHE_SIZE / 2;
+            for (int i = 0; i < give; i++) {
+                Object entity = local.items[--local.size];
+                local.items[local.size] = null;
+                if (sharedSize < SHARED_CAPACITY) {
+                    shared[sharedSize++] = entity;
+                }
+            }
+        }
+
+        // Entities ever constructed by this pool
+        public long getCreatedCount() {
+            return created.sum();
+        }
+
+        // Entities handed out and not yet released
+        public long getInUseCount() {
+            return acquired.sum() - released.sum();
+        }
+
+        // Idle entities in the shared stack (per-thread caches not included)
+        public synchronized int getSharedIdleCount() {
+            return sharedSize;
+        }
+
+        @Override
+        public String toString() {
+            return "created=" + getCreatedCount() + ", inUse=" + getInUseCount() + ", sharedIdle=" + getSharedIdleCount();
+        }
+
+        private static class ThreadCache {
+            final Object[] items = new Object[THREAD_CACHE_SIZE];
+            int size;
+        }
+    }
+
     public class Game {
         public void main(String[] args) {
             // Choose game theme: Futuristic
@@ -107,6 +483,159 @@ public class AbstractFactory {
 
             vehicle.drive();
             weapon.use();
+
+            // Pooled theme: spawn, despawn, and the next spawn reuses the same objects
+            PooledGameFactory pooled = new PooledGameFactory(new FuturisticFactory());
+            vehicle = pooled.createVehicle();
+            pooled.releaseVehicle(vehicle);
+            System.out.println(vehicle == pooled.createVehicle());  // Output: true
+            System.out.println(pooled.getVehiclePool());
+        }
+    }
+
+    /**
+     * One tick (drive + use) over N entities: an object per Vehicle/Weapon with interface calls,
+     * versus EntityStore's columnar passes. Default N is 10M; run with a large heap (e.g. -Xmx3g).
+     */
+    public static class EntityStoreBenchmark {
+        private static final float DT = 1f / 60;
+
+        // Stateful per-object versions of the two families, dispatched through Vehicle / Weapon
+        static final class MovingFlyingCar implements Vehicle {
+            float position;
+            public void drive() {
+                position += 120f * DT;
+            }
+        }
+
+        static final class MovingHorse implements Vehicle {
+            float position;
+            public void drive() {
+                position += 15f * DT;
+            }
+        }
+
+        static final class ChargedLaserGun implements Weapon {
+            int ammo = 30;
+            float damageDealt;
+            public void use() {
+                if (ammo > 0) {
+                    ammo--;
+                    damageDealt += 40f;
+                }
+            }
+        }
+
+        static final class SharpSword implements Weapon {
+            float damageDealt;
+            public void use() {
+                damageDealt += 12f;
+            }
+        }
+
+        public static void main(String[] args) {
+            int entities = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+            AbstractFactory game = new AbstractFactory();
+            GameFactory futuristic = game.new FuturisticFactory();
+            GameFactory medieval = game.new MedievalFactory();
+
+            // Interleaved families, shuffled allocation order like a long-running world
+            Vehicle[] vehicles = new Vehicle[entities];
+            Weapon[] weapons = new Weapon[entities];
+            EntityStore store = new EntityStore(entities);
+            for (int i = 0; i < entities; i++) {
+                boolean future = (i & 1) == 0;
+                vehicles[i] = future ? new MovingFlyingCar() : new MovingHorse();
+                weapons[i] = future ? new ChargedLaserGun() : new SharpSword();
+                store.spawn(future ? futuristic : medieval);
+            }
+            Random random = new Random(42);
+            for (int i = entities - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Vehicle v = vehicles[i];
+                vehicles[i] = vehicles[j];
+                vehicles[j] = v;
+                Weapon w = weapons[i];
+                weapons[i] = weapons[j];
+                weapons[j] = w;
+            }
+
+            long objectNanos = Long.MAX_VALUE;
+            long columnarNanos = Long.MAX_VALUE;
+            for (int tick = 0; tick < 10; tick++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < entities; i++) {
+                    vehicles[i].drive();
+                    weapons[i].use();
+                }
+                objectNanos = Math.min(objectNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                store.driveAll(DT);
+                store.useAll();
+                columnarNanos = Math.min(columnarNanos, System.nanoTime() - start);
+            }
+            System.out.printf("%,d entities, best of 10 ticks%n", entities);
+            System.out.printf("objects + virtual calls : %8.2f ms/tick%n", objectNanos / 1e6);
+            System.out.printf("columnar passes         : %8.2f ms/tick%n", columnarNanos / 1e6);
+        }
+    }
+
+    /**
+     * Spawn/despawn churn over a live world of entities: allocation rate of the plain factory versus the pooled one.
+     */
+    public static class PoolBenchmark {
+        private static final int WORLD = 10_000;
+        private static final int TICKS = 2_000;
+        private static final int CHURN_PER_TICK = 1_000;
+
+        public static void main(String[] args) {
+            AbstractFactory game = new AbstractFactory();
+            GameFactory plain = game.new FuturisticFactory();
+            PooledGameFactory pooled = game.new PooledGameFactory(game.new FuturisticFactory());
+
+            for (int round = 0; round < 2; round++) {  // first round is warmup
+                double plainBytes = churn(plain, null);
+                double pooledBytes = churn(pooled, pooled);
+                if (round == 1) {
+                    System.out.printf("plain  : %8.2f bytes/spawn%n", plainBytes);
+                    System.out.printf("pooled : %8.2f bytes/spawn (%s)%n", pooledBytes, pooled.getVehiclePool());
+                }
+            }
+        }
+
+        // Replaces CHURN_PER_TICK random entities every tick; returns bytes allocated per spawned entity
+        private static double churn(GameFactory factory, PooledGameFactory pool) {
+            com.sun.management.ThreadMXBean mx =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            Vehicle[] vehicles = new Vehicle[WORLD];
+            Weapon[] weapons = new Weapon[WORLD];
+            for (int i = 0; i < WORLD; i++) {
+                vehicles[i] = factory.createVehicle();
+                weapons[i] = factory.createWeapon();
+            }
+            long seed = 42;
+            long before = mx.getThreadAllocatedBytes(Thread.currentThread().getId());
+            for (int tick = 0; tick < TICKS; tick++) {
+                for (int i = 0; i < CHURN_PER_TICK; i++) {
+                    seed = seed * 6364136223846793005L + 1442695040888963407L;
+                    int slot = (int) ((seed >>> 33) % WORLD);
+                    if (pool != null) {
+                        pool.releaseVehicle(vehicles[slot]);
+                        pool.releaseWeapon(weapons[slot]);
+                    }
+                    vehicles[slot] = factory.createVehicle();
+                    weapons[slot] = factory.createWeapon();
+                }
+            }
+            long allocated = mx.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+            if (pool != null) {
+                for (int i = 0; i < WORLD; i++) {
+                    pool.releaseVehicle(vehicles[i]);
+                    pool.releaseWeapon(weapons[i]);
+                }
+            }
+            return (double) allocated / ((long) TICKS * CHURN_PER_TICK * 2);
         }
     }
 
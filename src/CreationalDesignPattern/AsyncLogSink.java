@@ -0,0 +1,318 @@
+package CreationalDesignPattern;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.BufferedOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *
+ * ✅ Definition:
+ * An asynchronous backend for {@link Singleton.Logger}.
+ * log() publishes the line into a preallocated ring buffer and returns; one background consumer
+ * drains the buffer and writes to the real sink in batches.
+ *
+ * 🎯 Why?
+ * With the default sink every log() call takes the stdout lock and waits for the write.
+ * Under many threads that lock becomes the bottleneck and the caller pays microseconds per line.
+ *
+ * 🔨 How it works:
+ * Producers claim a slot with a single atomic increment on the tail counter (no locks).
+ * Under DROP the claim is a compare-and-set that fails when the ring is full, so a full ring never
+ * makes a producer wait.
+ *
+ * Every slot carries a sequence number, so producers and the consumer know when a slot is free or filled.
+ *
+ * The consumer writes a whole batch and then flushes once.
+ *
+ * ⚙️ Knobs:
+ * Option	                Description
+ * -----------------------------------------------------------------
+ * WaitStrategy	            SPIN, YIELD or PARK while the consumer is idle or a producer waits for space.
+ * OverflowPolicy	        DROP the line (and count it) or BLOCK the caller when the buffer is full.
+ * capacity	                Ring size, rounded up to a power of two.
+ *
+ * ⚡ Caution:
+ * Lines written after close() are not written anywhere; they are counted in getDroppedCount().
+ *
+ * A delegate that throws does not stop the consumer: the line is counted in getFailedCount(), the exception
+ * is kept for getLastFailure(), and draining goes on with the next line.
+ *
+ * 📌 Usage:
+ * Singleton.Logger.getInstance().setSink(AsyncLogSink.toStdout(1 << 16, WaitStrategy.PARK, OverflowPolicy.DROP));
+ *
+ */
+public class AsyncLogSink implements Singleton.LogSink, AutoCloseable {
+
+    public enum WaitStrategy {
+        SPIN,   // lowest latency, burns a core
+        YIELD,  // gives the core to other threads between attempts
+        PARK;   // sleeps briefly, cheapest on CPU
+
+        private static final long PARK_NANOS = 50_000;
+
+        void idle() {
+            switch (this) {
+                case SPIN:
+                    Thread.onSpinWait();
+                    break;
+                case YIELD:
+                    Thread.yield();
+                    break;
+                default:
+                    LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+
+    private static final int BATCH_SIZE = 256;
+
+    private final Singleton.LogSink delegate;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+
+    // Preallocated ring; slot i is free for sequence s when sequences[i] == s
+    private final String[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    // Next sequence a producer may claim
+    private final AtomicLong tail = new AtomicLong();
+    // Next sequence the consumer reads (only the consumer writes it)
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // Lines (and flushes) the delegate threw on; only the consumer writes these
+    private final AtomicLong failed = new AtomicLong();
+    private volatile RuntimeException lastFailure;
+    // Producers inside write(); close() waits for them before stopping the consumer
+    private final AtomicLong writers = new AtomicLong();
+    private volatile boolean closed;
+
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    public AsyncLogSink(Singleton.LogSink delegate, int capacity,
+                        WaitStrategy waitStrategy, OverflowPolicy overflowPolicy) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.delegate = delegate;
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+        this.slots = new String[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+
+        this.consumer = new Thread(this::drainLoop, "logger-async-consumer");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    // Async sink over a buffered stdout stream, flushed once per batch
+    public static AsyncLogSink toStdout(int capacity, WaitStrategy waitStrategy, OverflowPolicy overflowPolicy) {
+        OutputStream stdout = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16);
+        return new AsyncLogSink(new Singleton.ConsoleSink(new PrintStream(stdout, false)),
+                capacity, waitStrategy, overflowPolicy);
+    }
+
+    @Override
+    public void write(CharSequence line) {
+        writers.incrementAndGet();
+        try {
+            // closed is read after announcing this writer, so close() either sees us or we see closed
+            if (closed || !offer(line.toString())) {
+                dropped.incrementAndGet();
+            }
+        } finally {
+            writers.decrementAndGet();
+        }
+    }
+
+    // Returns false only when the line was dropped
+    private boolean offer(String line) {
+        long pos;
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            // The claim itself fails on a full ring, so no producer ever waits for space
+            do {
+                pos = tail.get();
+                if (pos - head.get() >= slots.length) {
+                    return false;
+                }
+            } while (!tail.compareAndSet(pos, pos + 1));
+        } else {
+            // One atomic increment claims the slot, no CAS retry loop under contention
+            pos = tail.getAndIncrement();
+        }
+        int index = (int) pos & mask;
+        while (sequences.get(index) != pos) {
+            // The ring wrapped onto a slot the consumer has not released yet
+            if (!consumer.isAlive()) {
+                return false;
+            }
+            waitStrategy.idle();
+        }
+        slots[index] = line;
+        sequences.lazySet(index, pos + 1);  // publish to the consumer
+        return true;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drainBatch() == 0) {
+                waitStrategy.idle();
+            }
+        }
+        while (drainBatch() > 0) {
+            // Flush whatever was published before close()
+        }
+    }
+
+    private int drainBatch() {
+        long pos = head.get();
+        int count = 0;
+        while (count < BATCH_SIZE) {
+            int index = (int) pos & mask;
+            if (sequences.get(index) != pos + 1) {
+                break;
+            }
+            String line = slots[index];
+            slots[index] = null;
+            sequences.lazySet(index, pos + slots.length);  // hand the slot back to producers
+            try {
+                delegate.write(line);
+            } catch (RuntimeException e) {
+                failed(e);  // one bad line must not kill the consumer
+            }
+            pos++;
+            count++;
+        }
+        if (count > 0) {
+            head.lazySet(pos);
+            try {
+                delegate.flush();
+            } catch (RuntimeException e) {
+                failed(e);
+            }
+        }
+        return count;
+    }
+
+    private void failed(RuntimeException e) {
+        lastFailure = e;
+        failed.incrementAndGet();
+    }
+
+    // Lines accepted into the ring so far
+    public long getPublishedCount() {
+        return tail.get();
+    }
+
+    // Lines sitting in the ring waiting for the consumer
+    public long getQueuedCount() {
+        return Math.max(0, tail.get() - head.get());
+    }
+
+    // Lines rejected because the ring was full (DROP policy) or the sink was closed
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Lines and flushes the delegate threw on; the consumer skipped them and kept draining
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    // Most recent delegate exception, or null
+    public RuntimeException getLastFailure() {
+        return lastFailure;
+    }
+
+    @Override
+    public void flush() {
+        long target = tail.get();
+        while (head.get() < target && consumer.isAlive()) {
+            waitStrategy.idle();
+        }
+    }
+
+    // Stops the consumer after it has written everything already published; later lines are dropped
+    @Override
+    public void close() {
+        closed = true;
+        while (writers.get() > 0 && consumer.isAlive()) {
+            waitStrategy.idle();  // let writers already inside write() publish their line
+        }
+        running = false;
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.flush();
+    }
+
+    /**
+     * Rough latency check: 64 threads logging through the synchronous console sink versus the async sink.
+     * Both write to a discarding stream so only the cost on the caller's thread is measured.
+     */
+    public static class Benchmark {
+        private static final int THREADS = 64;
+        private static final int CALLS_PER_THREAD = 20_000;
+
+        public static void main(String[] args) throws InterruptedException {
+            Singleton.LogSink sync = new Singleton.ConsoleSink(new PrintStream(OutputStream.nullOutputStream(), true));
+            System.out.println("sync  p99 ns: " + p99(sync));
+
+            try (AsyncLogSink async = new AsyncLogSink(
+                    new Singleton.ConsoleSink(new PrintStream(OutputStream.nullOutputStream(), false)),
+                    1 << 16, WaitStrategy.YIELD, OverflowPolicy.DROP)) {
+                System.out.println("async p99 ns: " + p99(async));
+                System.out.println("dropped: " + async.getDroppedCount()
+                        + ", published: " + async.getPublishedCount());
+            }
+        }
+
+        private static long p99(Singleton.LogSink sink) throws InterruptedException {
+            long[][] latencies = new long[THREADS][CALLS_PER_THREAD];
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] threads = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                long[] samples = latencies[t];
+                threads[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                        long begin = System.nanoTime();
+                        sink.write("Log: benchmark message");
+                        samples[i] = System.nanoTime() - begin;
+                    }
+                });
+                threads[t].start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            return all[(int) (all.length * 0.99)];
+        }
+    }
+}
@@ -1,5 +1,15 @@
 package CreationalDesignPattern;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  *
  *
@@ -53,52 +63,154 @@ package CreationalDesignPattern;
  * The final object is built using a build() method.
  *
  *
+ * ♻️ Building millions of orders:
+ * A builder can be reset() and reused; BurgerBuilder.reusable() hands out one builder per thread.
+ *
+ * Known ingredient strings are mapped to canonical instances (see Ingredients), so products compare by reference.
+ *
+ * Products are immutable with a precomputed hashCode; build() returns the shared instance of an
+ * identical product instead of allocating a new one.
+ *
+ * AllocationBenchmark reports the bytes allocated per order before and after.
+ *
  */
 public class Builder {
-    public class Burger {
-        private String bun;
-        private String sauce;
-        private String cheese;
-        private String meat;
+
+    /**
+     * Canonical ingredient table: every known ingredient value is mapped to one shared String, so a million
+     * burgers with "Sesame Bun" point at the same object and products can be compared by reference.
+     * The table is fixed at class init; any other value is returned as given (compared with equals), so
+     * callers can't grow it.
+     */
+    public static class Ingredients {
+        private static final Map<String, String> CANONICAL = new HashMap<>();
+
+        static {
+            for (String known : new String[] {
+                    "Whole Wheat Bun", "Sesame Bun", "Brioche Bun",
+                    "Tomato Sauce", "Mayo", "Mustard", "BBQ Sauce",
+                    "Cheddar", "Swiss", "Mozzarella",
+                    "Chicken Patty", "Beef Patty", "Veg Patty"}) {
+                CANONICAL.put(known, known);
+            }
+        }
+
+        public static String canonical(String value) {
+            if (value == null) {
+                return null;
+            }
+            String known = CANONICAL.get(value);
+            return known != null ? known : value;
+        }
+    }
+
+    public static class Burger {
+        private final String bun;
+        private final String sauce;
+        private final String cheese;
+        private final String meat;
+        private final int hash;
+
+        // Direct-mapped cache of built burgers: identical orders share one immutable instance
+        private static final int CACHE_SIZE = 1024;
+        private static final AtomicReferenceArray<Burger> BUILT = new AtomicReferenceArray<>(CACHE_SIZE);
 
         // Private constructor
-        private Burger(Builder builder) {
+        private Burger(BurgerBuilder builder, int hash) {
             this.bun = builder.bun;
             this.sauce = builder.sauce;
             this.cheese = builder.cheese;
             this.meat = builder.meat;
+            this.hash = hash;
+        }
+
+        // Known ingredients are canonical and match by reference; any others fall back to equals
+        private boolean sameAs(BurgerBuilder builder) {
+            return Objects.equals(bun, builder.bun) && Objects.equals(sauce, builder.sauce)
+                    && Objects.equals(cheese, builder.cheese) && Objects.equals(meat, builder.meat);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Burger)) {
+                return false;
+            }
+            Burger that = (Burger) other;
+            return hash == that.hash && Objects.equals(bun, that.bun) && Objects.equals(sauce, that.sauce)
+                    && Objects.equals(cheese, that.cheese) && Objects.equals(meat, that.meat);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;  // precomputed at build time
         }
 
         // Builder Class
-        public static class Builder {
+        public static class BurgerBuilder {
+            private static final ThreadLocal<BurgerBuilder> PER_THREAD = ThreadLocal.withInitial(BurgerBuilder::new);
+
             private String bun;
             private String sauce;
             private String cheese;
             private String meat;
 
-            public Builder setBun(String bun) {
-                this.bun = bun;
+            // This thread's builder, reset and ready for the next order (no allocation per order)
+            public static BurgerBuilder reusable() {
+                return PER_THREAD.get().reset();
+            }
+
+            public BurgerBuilder setBun(String bun) {
+                this.bun = Ingredients.canonical(bun);
                 return this;
             }
 
-            public Builder setSauce(String sauce) {
-                this.sauce = sauce;
+            public BurgerBuilder setSauce(String sauce) {
+                this.sauce = Ingredients.canonical(sauce);
                 return this;
             }
 
-            public Builder setCheese(String cheese) {
-                this.cheese = cheese;
+            public BurgerBuilder setCheese(String cheese) {
+                this.cheese = Ingredients.canonical(cheese);
                 return this;
             }
 
-            public Builder setMeat(String meat) {
-                this.meat = meat;
+            public BurgerBuilder setMeat(String meat) {
+                this.meat = Ingredients.canonical(meat);
                 return this;
             }
 
-            // Final step: Build the Burger
+            // Clears every ingredient so the builder can be used for another burger
+            public BurgerBuilder reset() {
+                bun = null;
+                sauce = null;
+                cheese = null;
+                meat = null;
+                return this;
+            }
+
+            // Same value as Objects.hash(...) without the varargs array
+            static int hashOf(String bun, String sauce, String cheese, String meat) {
+                int hash = 1;
+                hash = 31 * hash + Objects.hashCode(bun);
+                hash = 31 * hash + Objects.hashCode(sauce);
+                hash = 31 * hash + Objects.hashCode(cheese);
+                return 31 * hash + Objects.hashCode(meat);
+            }
+
+            // Final step: Build the Burger (or return the shared instance of an identical one)
             public Burger build() {
-                return new Burger(this);
+                int hash = hashOf(bun, sauce, cheese, meat);
+                int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+                Burger cached = BUILT.get(slot);
+                if (cached != null && cached.sameAs(this)) {
+                    return cached;
+                }
+                Burger burger = new Burger(this, hash);
+                BUILT.set(slot, burger);
+                return burger;
             }
         }
 
@@ -112,7 +224,7 @@ public class Builder {
         public void main(String[] args) {
 
             // Build Veg Burger
-            Burger vegBurger = new Burger.Builder()
+            Burger vegBurger = new Burger.BurgerBuilder()
                     .setBun("Whole Wheat Bun")
                     .setSauce("Tomato Sauce")
                     .setCheese("Cheddar")
@@ -120,7 +232,7 @@ public class Builder {
             vegBurger.display();
 
             // Build Chicken Burger
-            Burger chickenBurger = new Burger.Builder()
+            Burger chickenBurger = new Burger.BurgerBuilder()
                     .setBun("Sesame Bun")
                     .setSauce("Mayo")
                     .setCheese("Swiss")
@@ -130,59 +242,338 @@ public class Builder {
         }
     }
 
-    public class Pizza {
-        private String size;
-        private boolean cheese;
-        private boolean pepperoni;
-        private boolean mushrooms;
+    public static class Pizza {
+        // Bits 0..60 are toppings (Topping.bit), bits 61..63 the size
+        public static final int MAX_TOPPINGS = 61;
+        private static final int SIZE_SHIFT = 61;
+        public static final long TOPPING_MASK = (1L << SIZE_SHIFT) - 1;
+
+        public enum Size {
+            SMALL("Small"), MEDIUM("Medium"), LARGE("Large"), FAMILY("Family"),
+            // Any other label; the pizza keeps the caller's label for display
+            OTHER("Other");
+
+            private static final Size[] VALUES = values();  // values() copies the array on every call
+
+            private final String label;
+
+            Size(String label) {
+                this.label = label;
+            }
+
+            public long bits() {
+                return (long) ordinal() << SIZE_SHIFT;
+            }
+
+            // Unknown labels map to OTHER rather than failing: any size label was accepted before packing
+            public static Size of(String label) {
+                for (Size size : VALUES) {
+                    if (size.label.equalsIgnoreCase(label)) {
+                        return size;
+                    }
+                }
+                return OTHER;
+            }
+
+            @Override
+            public String toString() {
+                return label;
+            }
+        }
+
+        // New toppings are new constants here; no new field or builder method needed
+        public enum Topping {
+            CHEESE, PEPPERONI, MUSHROOMS, OLIVES, ONIONS, PEPPERS, PINEAPPLE, HAM, BASIL, JALAPENOS;
+
+            public final long bit = 1L << ordinal();
+
+            // Mask with the bit of every given topping set
+            public static long maskOf(Topping... toppings) {
+                long mask = 0;
+                for (Topping topping : toppings) {
+                    mask |= topping.bit;
+                }
+                return mask;
+            }
+        }
+
+        static {
+            if (Topping.values().length > MAX_TOPPINGS) {
+                throw new ExceptionInInitializerError("At most " + MAX_TOPPINGS + " toppings fit next to the size bits");
+            }
+        }
+
+        private final long bits;
+        // The caller's size label when the size is OTHER, otherwise null
+        private final String sizeLabel;
+
+        // Same direct-mapped dedup cache as Burger
+        private static final int CACHE_SIZE = 256;
+        private static final AtomicReferenceArray<Pizza> BUILT = new AtomicReferenceArray<>(CACHE_SIZE);
 
         // Private constructor
-        private Pizza(PizzaBuilder builder) {
-            this.size = builder.size;
-            this.cheese = builder.cheese;
-            this.pepperoni = builder.pepperoni;
-            this.mushrooms = builder.mushrooms;
+        private Pizza(long bits) {
+            this(bits, null);
+        }
+
+        private Pizza(long bits, String sizeLabel) {
+            this.bits = bits;
+            this.sizeLabel = sizeLabel;
+        }
+
+        // Packed size + toppings, the form PizzaOrderStore keeps
+        public long bits() {
+            return bits;
+        }
+
+        public Size size() {
+            return sizeOf(bits);
+        }
+
+        // The size as ordered: the Size label, or the caller's own label for OTHER
+        public String sizeLabel() {
+            return sizeLabel != null ? sizeLabel : size().toString();
+        }
+
+        public boolean has(Topping topping) {
+            return has(bits, topping);
+        }
+
+        public static Size sizeOf(long bits) {
+            return Size.VALUES[(int) (bits >>> SIZE_SHIFT)];
+        }
+
+        public static boolean has(long bits, Topping topping) {
+            return (bits & topping.bit) != 0;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || other instanceof Pizza && bits == ((Pizza) other).bits
+                    && Objects.equals(sizeLabel, ((Pizza) other).sizeLabel);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(bits);
         }
 
         // Display pizza details
         public void display() {
-            System.out.println("Pizza size: " + size);
-            System.out.println("Cheese: " + cheese);
-            System.out.println("Pepperoni: " + pepperoni);
-            System.out.println("Mushrooms: " + mushrooms);
+            System.out.println("Pizza size: " + sizeLabel());
+            System.out.println("Cheese: " + has(Topping.CHEESE));
+            System.out.println("Pepperoni: " + has(Topping.PEPPERONI));
+            System.out.println("Mushrooms: " + has(Topping.MUSHROOMS));
+            for (Topping topping : Topping.values()) {
+                if (topping.ordinal() > Topping.MUSHROOMS.ordinal() && has(topping)) {
+                    System.out.println("Extra: " + topping);
+                }
+            }
         }
 
         // Builder Class
         public static class PizzaBuilder {
-            private String size;
-            private boolean cheese;
-            private boolean pepperoni;
-            private boolean mushrooms;
+            private static final ThreadLocal<PizzaBuilder> PER_THREAD = ThreadLocal.withInitial(() -> new PizzaBuilder(Size.MEDIUM));
+
+            private long bits;
+            private String sizeLabel;
 
             public PizzaBuilder(String size) {
-                this.size = size;
+                reset(size);
             }
 
-            public PizzaBuilder addCheese() {
-                this.cheese = true;
+            public PizzaBuilder(Size size) {
+                reset(size);
+            }
+
+            // This thread's builder, reset to the given size
+            public static PizzaBuilder reusable(String size) {
+                return PER_THREAD.get().reset(size);
+            }
+
+            // Clears every topping and starts a new pizza of the given size
+            public PizzaBuilder reset(Size size) {
+                this.bits = size.bits();
+                this.sizeLabel = null;
                 return this;
             }
 
-            public PizzaBuilder addPepperoni() {
-                this.pepperoni = true;
+            // Same, from a label; an unknown label becomes Size.OTHER and is kept for display
+            public PizzaBuilder reset(String size) {
+                Size parsed = Size.of(size);
+                reset(parsed);
+                if (parsed == Size.OTHER) {
+                    this.sizeLabel = size;
+                }
                 return this;
             }
 
-            public PizzaBuilder addMushrooms() {
-                this.mushrooms = true;
+            public PizzaBuilder addTopping(Topping topping) {
+                this.bits |= topping.bit;
                 return this;
             }
 
+            public PizzaBuilder addCheese() {
+                return addTopping(Topping.CHEESE);
+            }
+
+            public PizzaBuilder addPepperoni() {
+                return addTopping(Topping.PEPPERONI);
+            }
+
+            public PizzaBuilder addMushrooms() {
+                return addTopping(Topping.MUSHROOMS);
+            }
+
+            // The packed order without creating a Pizza at all
+            public long buildBits() {
+                return bits;
+            }
+
             public Pizza build() {
-                return new Pizza(this);
+                int slot = (int) (bits ^ (bits >>> 29) ^ (bits >>> SIZE_SHIFT)) & (CACHE_SIZE - 1);
+                Pizza cached = BUILT.get(slot);
+                if (cached != null && cached.bits == bits && Objects.equals(cached.sizeLabel, sizeLabel)) {
+                    return cached;
+                }
+                Pizza pizza = new Pizza(bits, sizeLabel);
+                BUILT.set(slot, pizza);
+                return pizza;
             }
         }
     }
+
+    /**
+     * Millions of pizza orders as one long[] of packed bits (8 bytes per order, no objects).
+     * Queries such as "how many orders contain pepperoni and mushrooms" are a mask-and-compare per element.
+     *
+     * ⚡ Single writer: add() is not thread-safe; queries may run on any thread once writing has stopped.
+     */
+    public static class PizzaOrderStore {
+        private long[] orders;
+        private int count;
+
+        public PizzaOrderStore(int expectedOrders) {
+            this.orders = new long[Math.max(16, expectedOrders)];
+        }
+
+        public void add(Pizza pizza) {
+            add(pizza.bits());
+        }
+
+        public void add(long bits) {
+            if (count == orders.length) {
+                orders = Arrays.copyOf(orders, orders.length * 2);
+            }
+            orders[count++] = bits;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public long get(int index) {
+            if (index >= count) {
+                throw new IndexOutOfBoundsException("index " + index + " >= " + count);
+            }
+            return orders[index];
+        }
+
+        // Orders containing every given topping
+        public int countWith(Pizza.Topping... toppings) {
+            long mask = Pizza.Topping.maskOf(toppings);
+            return countMatching(mask, mask);
+        }
+
+        // Orders of one size containing every given topping
+        public int countWith(Pizza.Size size, Pizza.Topping... toppings) {
+            long toppingMask = Pizza.Topping.maskOf(toppings);
+            return countMatching(toppingMask | ~Pizza.TOPPING_MASK, toppingMask | size.bits());
+        }
+
+        // Orders containing at least one of the given toppings
+        public int countWithAny(Pizza.Topping... toppings) {
+            long mask = Pizza.Topping.maskOf(toppings);
+            long[] data = orders;
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                if ((data[i] & mask) != 0) {
+                    matches++;
+                }
+            }
+            return matches;
+        }
+
+        // Per-topping totals for the dashboard, indexed by Topping.ordinal()
+        public long[] toppingTotals() {
+            long[] totals = new long[Pizza.Topping.values().length];
+            long[] data = orders;
+            for (int i = 0; i < count; i++) {
+                long toppings = data[i] & Pizza.TOPPING_MASK;
+                while (toppings != 0) {
+                    totals[Long.numberOfTrailingZeros(toppings)]++;
+                    toppings &= toppings - 1;  // clear lowest set bit
+                }
+            }
+            return totals;
+        }
+
+        private int countMatching(long mask, long expected) {
+            long[] data = orders;
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                matches += (data[i] & mask) == expected ? 1 : 0;  // no branch to mispredict
+            }
+            return matches;
+        }
+
+        /**
+         * 10M random orders: "pepperoni and mushrooms" over a List of Pizza objects versus over the store.
+         */
+        public static class Benchmark {
+            private static final int ORDERS = 10_000_000;
+
+            public static void main(String[] args) {
+                Random random = new Random(42);
+                Pizza.Size[] sizes = Pizza.Size.values();
+                Pizza.Topping[] toppings = Pizza.Topping.values();
+                PizzaOrderStore store = new PizzaOrderStore(ORDERS);
+                List<Pizza> objects = new ArrayList<>(ORDERS);
+                Pizza.PizzaBuilder builder = new Pizza.PizzaBuilder(Pizza.Size.MEDIUM);
+                for (int i = 0; i < ORDERS; i++) {
+                    builder.reset(sizes[random.nextInt(sizes.length)]);
+                    for (Pizza.Topping topping : toppings) {
+                        if (random.nextInt(4) == 0) {
+                            builder.addTopping(topping);
+                        }
+                    }
+                    store.add(builder.buildBits());
+                    objects.add(new Pizza(builder.buildBits()));  // one object per order, as before
+                }
+
+                for (int round = 0; round < 5; round++) {  // earlier rounds warm up the JIT
+                    long start = System.nanoTime();
+                    int fromObjects = 0;
+                    for (Pizza pizza : objects) {
+                        if (pizza.has(Pizza.Topping.PEPPERONI) && pizza.has(Pizza.Topping.MUSHROOMS)) {
+                            fromObjects++;
+                        }
+                    }
+                    long objectNanos = System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    int fromStore = store.countWith(Pizza.Topping.PEPPERONI, Pizza.Topping.MUSHROOMS);
+                    long storeNanos = System.nanoTime() - start;
+
+                    if (round == 4) {
+                        System.out.printf("List<Pizza>     : %,d matches in %6.2f ms%n", fromObjects, objectNanos / 1e6);
+                        System.out.printf("PizzaOrderStore : %,d matches in %6.2f ms%n", fromStore, storeNanos / 1e6);
+                    }
+                }
+            }
+        }
+    }
+
     public class MainPizza {
         public void main(String[] args) {
             // Build a large pizza with cheese and pepperoni
@@ -197,6 +588,86 @@ public class Builder {
                     .addMushrooms()
                     .build();
             pizza2.display();
+
+            // Kitchen dashboard: orders kept as packed longs
+            PizzaOrderStore store = new PizzaOrderStore(1_024);
+            store.add(pizza);
+            store.add(pizza2);
+            store.add(new Pizza.PizzaBuilder("Large").addPepperoni().addMushrooms()
+                    .addTopping(Pizza.Topping.OLIVES).buildBits());
+            System.out.println("Pepperoni + mushrooms: "
+                    + store.countWith(Pizza.Topping.PEPPERONI, Pizza.Topping.MUSHROOMS));           // Output: 1
+            System.out.println("Large with pepperoni: "
+                    + store.countWith(Pizza.Size.LARGE, Pizza.Topping.PEPPERONI));                   // Output: 2
+        }
+    }
+
+    /**
+     * 1M orders whose ingredient names arrive as fresh Strings (as they would from a request parser):
+     * a new builder and a new product per order, versus the per-thread builder with canonical
+     * ingredients and shared products. Bytes come from the per-thread allocation counter.
+     */
+    public static class AllocationBenchmark {
+        private static final int ORDERS = 1_000_000;
+        private static final String[][] MENU = {
+                {"Whole Wheat Bun", "Tomato Sauce", "Cheddar", null},
+                {"Sesame Bun", "Mayo", "Swiss", "Chicken Patty"},
+                {"Brioche Bun", "BBQ Sauce", "Cheddar", "Beef Patty"},
+        };
+
+        // Products escape here, so the JIT cannot scalar-replace them away
+        private static final Object[] retained = new Object[1024];
+
+        public static void main(String[] args) {
+            // Simulated request payloads: new String objects, equal to the menu but not identical
+            String[][] incoming = new String[MENU.length][];
+            for (int i = 0; i < MENU.length; i++) {
+                incoming[i] = new String[4];
+                for (int j = 0; j < 4; j++) {
+                    incoming[i][j] = MENU[i][j] == null ? null : new String(MENU[i][j]);
+                }
+            }
+
+            for (int round = 0; round < 3; round++) {  // earlier rounds warm up the JIT
+                long freshBytes = allocated(() -> {
+                    for (int i = 0; i < ORDERS; i++) {
+                        String[] order = incoming[i % incoming.length];
+                        Burger.BurgerBuilder builder = new Burger.BurgerBuilder();
+                        builder.bun = order[0];  // what the builder did before: keep the caller's Strings
+                        builder.sauce = order[1];
+                        builder.cheese = order[2];
+                        builder.meat = order[3];
+                        Burger burger = new Burger(builder,
+                                Burger.BurgerBuilder.hashOf(order[0], order[1], order[2], order[3]));
+                        retained[i & 1022] = burger;
+                        Pizza pizza = new Pizza(new Pizza.PizzaBuilder("Large").addCheese().buildBits());
+                        retained[(i & 1022) + 1] = pizza;
+                    }
+                });
+                long reusedBytes = allocated(() -> {
+                    for (int i = 0; i < ORDERS; i++) {
+                        String[] order = incoming[i % incoming.length];
+                        Burger burger = Burger.BurgerBuilder.reusable()
+                                .setBun(order[0]).setSauce(order[1]).setCheese(order[2]).setMeat(order[3])
+                                .build();
+                        retained[i & 1022] = burger;
+                        Pizza pizza = Pizza.PizzaBuilder.reusable("Large").addCheese().build();
+                        retained[(i & 1022) + 1] = pizza;
+                    }
+                });
+                if (round == 2) {
+                    System.out.printf("new builder + new product : %6.1f bytes/order%n", (double) freshBytes / ORDERS);
+                    System.out.printf("reused builder + shared   : %6.1f bytes/order%n", (double) reusedBytes / ORDERS);
+                }
+            }
+        }
+
+        private static long allocated(Runnable orders) {
+            com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().getId();
+            long before = mx.getThreadAllocatedBytes(threadId);
+            orders.run();
+            return mx.getThreadAllocatedBytes(threadId) - before;
         }
     }
 
@@ -0,0 +1,548 @@
+package CreationalDesignPattern;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ *
+ * ✅ Definition:
+ * Reads newline-delimited JSON burger orders straight from bytes into {@link Builder.Burger.BurgerBuilder}.
+ * One order per line, for example:
+ * {"bun":"Sesame Bun","sauce":"Mayo","cheese":"Swiss","meat":"Chicken Patty"}
+ *
+ * 🎯 Why?
+ * Parsing each line into a Map<String, String> first costs a String per key and value, a map and its entries,
+ * all thrown away once the setters have run.
+ *
+ * 🔨 How it works:
+ * The tokenizer walks the ByteBuffer directly and recognizes the four keys by their bytes.
+ *
+ * Values are looked up by their bytes in a bounded table of values already seen, so only the first occurrence
+ * of a value (or one with escapes) creates a String. The builder maps known ingredients to their canonical
+ * String (see Builder.Ingredients); values beyond the table or the known set are not remembered anywhere.
+ *
+ * One reused builder per reader; build() returns shared Burger instances, so a known order allocates nothing.
+ *
+ * Files are memory-mapped one window at a time, so a multi-GB file is read in constant heap memory.
+ * Unknown keys are skipped, whatever their value.
+ *
+ * ⚡ Caution:
+ * A reader is not thread-safe; use one per thread.
+ *
+ * 📌 Usage:
+ * BurgerOrderReader reader = new BurgerOrderReader();
+ * reader.readFile(Path.of("orders.ndjson"), burger -> kitchen.prepare(burger));
+ * System.out.println(reader.recordsPerSecond() + " orders/s");
+ *
+ */
+public class BurgerOrderReader {
+
+    private static final int DEFAULT_WINDOW = 64 << 20;
+    private static final int TABLE_SIZE = 4096;          // distinct ingredient values remembered
+    private static final int TABLE_LIMIT = TABLE_SIZE / 2;
+
+    // Field ids, matched against the key bytes
+    private static final int NONE = 0, BUN = 1, SAUCE = 2, CHEESE = 3, MEAT = 4;
+    private static final byte[][] KEYS = {
+            null,
+            "bun".getBytes(StandardCharsets.US_ASCII),
+            "sauce".getBytes(StandardCharsets.US_ASCII),
+            "cheese".getBytes(StandardCharsets.US_ASCII),
+            "meat".getBytes(StandardCharsets.US_ASCII),
+    };
+
+    private final int windowSize;
+    private final Builder.Burger.BurgerBuilder builder = new Builder.Burger.BurgerBuilder();
+
+    // Open-addressing table: value bytes -> canonical ingredient String
+    private final byte[][] knownBytes = new byte[TABLE_SIZE][];
+    private final String[] knownValues = new String[TABLE_SIZE];
+    private int knownCount;
+
+    // Scratch space for values that are not in the table yet (or contain escapes)
+    private byte[] scratch = new byte[256];
+
+    private long records;
+    private long bytes;
+    private long nanos;
+    private long line;
+
+    public BurgerOrderReader() {
+        this(DEFAULT_WINDOW);
+    }
+
+    // windowSize bounds the mapped region and therefore the longest possible line
+    public BurgerOrderReader(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Reads every order in the file. Returns the number of orders read.
+     */
+    public long readFile(Path file, Consumer<Builder.Burger> orders) throws IOException {
+        long start = System.nanoTime();
+        long before = records;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(windowSize, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = readLines(window, last, orders);
+                if (consumed == 0 && !last) {
+                    throw new IllegalArgumentException("Order at line " + (line + 1) + " is longer than " + windowSize + " bytes");
+                }
+                position += consumed;
+            }
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+        return records - before;
+    }
+
+    /**
+     * Reads every complete line between the buffer's position and limit. The final line needs no newline
+     * when endOfInput is true; otherwise an unterminated tail is left for the next call.
+     * Returns the number of bytes consumed and advances the buffer's position by that much.
+     */
+    public int read(ByteBuffer buffer, boolean endOfInput, Consumer<Builder.Burger> orders) {
+        long start = System.nanoTime();
+        try {
+            int consumed = readLines(buffer, endOfInput, orders);
+            buffer.position(buffer.position() + consumed);
+            return consumed;
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    public long getRecordCount() {
+        return records;
+    }
+
+    public long getBytesRead() {
+        return bytes;
+    }
+
+    public double recordsPerSecond() {
+        return nanos == 0 ? 0 : records * 1e9 / nanos;
+    }
+
+    private int readLines(ByteBuffer buffer, boolean endOfInput, Consumer<Builder.Burger> orders) {
+        int from = buffer.position();
+        int limit = buffer.limit();
+        int p = from;
+        while (p < limit) {
+            int end = p;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            if (end == limit && !endOfInput) {
+                break;  // incomplete line, wait for more input
+            }
+            line++;
+            if (!isBlank(buffer, p, end)) {
+                orders.accept(parseOrder(buffer, p, end));
+                records++;
+            }
+            p = Math.min(end + 1, limit);
+        }
+        bytes += p - from;
+        return p - from;
+    }
+
+    private Builder.Burger parseOrder(ByteBuffer buf, int p, int end) {
+        builder.reset();
+        p = expect(buf, skipWhitespace(buf, p, end), end, '{');
+        p = skipWhitespace(buf, p, end);
+        if (p < end && buf.get(p) == '}') {
+            return finish(buf, p + 1, end);
+        }
+        while (true) {
+            p = expect(buf, p, end, '"');
+            int keyEnd = stringEnd(buf, p, end);
+            int field = fieldOf(buf, p, keyEnd);
+            p = skipWhitespace(buf, keyEnd + 1, end);
+            p = skipWhitespace(buf, expect(buf, p, end, ':'), end);
+            if (field == NONE) {
+                p = skipValue(buf, p, end);
+            } else if (startsWith(buf, p, end, "null")) {
+                set(field, null);
+                p += 4;
+            } else {
+                p = expect(buf, p, end, '"');
+                int valueEnd = stringEnd(buf, p, end);
+                set(field, ingredient(buf, p, valueEnd));
+                p = valueEnd + 1;
+            }
+            p = skipWhitespace(buf, p, end);
+            if (p < end && buf.get(p) == ',') {
+                p = skipWhitespace(buf, p + 1, end);
+            } else {
+                return finish(buf, expect(buf, p, end, '}'), end);
+            }
+        }
+    }
+
+    private Builder.Burger finish(ByteBuffer buf, int p, int end) {
+        if (!isBlank(buf, p, end)) {
+            throw malformed("trailing characters after the order");
+        }
+        return builder.build();
+    }
+
+    private void set(int field, String value) {
+        switch (field) {
+            case BUN:
+                builder.setBun(value);
+                break;
+            case SAUCE:
+                builder.setSauce(value);
+                break;
+            case CHEESE:
+                builder.setCheese(value);
+                break;
+            case MEAT:
+                builder.setMeat(value);
+                break;
+            default:
+                throw new IllegalStateException("Unknown field " + field);
+        }
+    }
+
+    private static int fieldOf(ByteBuffer buf, int from, int to) {
+        for (int field = BUN; field <= MEAT; field++) {
+            if (bytesEqual(buf, from, to, KEYS[field])) {
+                return field;
+            }
+        }
+        return NONE;
+    }
+
+    // String for the value bytes in [from, to); allocates only for values not in the table
+    private String ingredient(ByteBuffer buf, int from, int to) {
+        int hash = 0x811C9DC5;  // FNV-1a
+        boolean escaped = false;
+        for (int i = from; i < to; i++) {
+            byte b = buf.get(i);
+            escaped |= b == '\\';
+            hash = (hash ^ b) * 0x01000193;
+        }
+        if (escaped) {
+            return unescape(buf, from, to);
+        }
+        int mask = TABLE_SIZE - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            byte[] known = knownBytes[slot];
+            if (known == null) {
+                String value = decode(buf, from, to);
+                if (knownCount < TABLE_LIMIT) {  // stays bounded even if every order has a new value
+                    byte[] copy = new byte[to - from];
+                    for (int i = 0; i < copy.length; i++) {
+                        copy[i] = buf.get(from + i);
+                    }
+                    knownBytes[slot] = copy;
+                    knownValues[slot] = value;
+                    knownCount++;
+                }
+                return value;
+            }
+            if (bytesEqual(buf, from, to, known)) {
+                return knownValues[slot];
+            }
+        }
+    }
+
+    private String decode(ByteBuffer buf, int from, int to) {
+        byte[] out = scratch(to - from);
+        for (int i = from; i < to; i++) {
+            out[i - from] = buf.get(i);
+        }
+        return new String(out, 0, to - from, StandardCharsets.UTF_8);
+    }
+
+    // Slow path for values with JSON escapes; \\uXXXX is re-encoded as UTF-8
+    private String unescape(ByteBuffer buf, int from, int to) {
+        byte[] out = scratch((to - from) * 3);
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            byte b = buf.get(i);
+            if (b != '\\') {
+                out[n++] = b;
+                continue;
+            }
+            if (++i >= to) {
+                throw malformed("dangling escape");
+            }
+            byte e = buf.get(i);
+            switch (e) {
+                case '"': case '\\': case '/':
+                    out[n++] = e;
+                    break;
+                case 'b':
+                    out[n++] = '\b';
+                    break;
+                case 'f':
+                    out[n++] = '\f';
+                    break;
+                case 'n':
+                    out[n++] = '\n';
+                    break;
+                case 'r':
+                    out[n++] = '\r';
+                    break;
+                case 't':
+                    out[n++] = '\t';
+                    break;
+                case 'u':
+                    char c = hex4(buf, i + 1, to);
+                    i += 4;
+                    // A surrogate pair arrives as two escapes; encode them together as one code point
+                    if (Character.isHighSurrogate(c) && i + 6 < to
+                            && buf.get(i + 1) == '\\' && buf.get(i + 2) == 'u') {
+                        char low = hex4(buf, i + 3, to);
+                        if (Character.isLowSurrogate(low)) {
+                            n = MappedFileLogSink.encode(new String(new char[] {c, low}), out, n);
+                            i += 6;
+                            break;
+                        }
+                    }
+                    n = MappedFileLogSink.encode(String.valueOf(c), out, n);
+                    break;
+                default:
+                    throw malformed("unknown escape \\" + (char) e);
+            }
+        }
+        return new String(out, 0, n, StandardCharsets.UTF_8);
+    }
+
+    // The four hex digits of a \\u escape starting at p
+    private char hex4(ByteBuffer buf, int p, int to) {
+        if (p + 4 > to) {
+            throw malformed("truncated \\u escape");
+        }
+        int c = 0;
+        for (int k = 0; k < 4; k++) {
+            int digit = Character.digit(buf.get(p + k), 16);
+            if (digit < 0) {
+                throw malformed("bad \\u escape");
+            }
+            c = c * 16 + digit;
+        }
+        return (char) c;
+    }
+
+    private byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    // Index of the closing quote of a string whose first character is at p
+    private int stringEnd(ByteBuffer buf, int p, int end) {
+        for (; p < end; p++) {
+            byte b = buf.get(p);
+            if (b == '"') {
+                return p;
+            }
+            if (b == '\\') {
+                p++;
+            }
+        }
+        throw malformed("unterminated string");
+    }
+
+    // Skips a value of an unknown key: string, number, literal, or nested object/array
+    private int skipValue(ByteBuffer buf, int p, int end) {
+        int depth = 0;
+        while (p < end) {
+            byte b = buf.get(p);
+            if (b == '"') {
+                p = stringEnd(buf, p + 1, end) + 1;
+                if (depth == 0) {
+                    return p;
+                }
+                continue;
+            }
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0) {
+                    return p;  // end of the enclosing order
+                }
+                if (--depth == 0) {
+                    return p + 1;
+                }
+            } else if (b == ',' && depth == 0) {
+                return p;
+            }
+            p++;
+        }
+        if (depth != 0) {
+            throw malformed("unterminated value");
+        }
+        return p;
+    }
+
+    private int expect(ByteBuffer buf, int p, int end, char c) {
+        if (p >= end || buf.get(p) != c) {
+            throw malformed("expected '" + c + "'");
+        }
+        return p + 1;
+    }
+
+    private IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed order at line " + line + ": " + reason);
+    }
+
+    private static int skipWhitespace(ByteBuffer buf, int p, int end) {
+        while (p < end && isWhitespace(buf.get(p))) {
+            p++;
+        }
+        return p;
+    }
+
+    private static boolean isBlank(ByteBuffer buf, int p, int end) {
+        return skipWhitespace(buf, p, end) == end;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    private static boolean startsWith(ByteBuffer buf, int p, int end, String literal) {
+        if (end - p < literal.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (buf.get(p + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean bytesEqual(ByteBuffer buf, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buf.get(from + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates an order file, then reads it the current way (readLine, parse into a Map, call the setters)
+     * and with BurgerOrderReader. Reports orders/s and bytes allocated per order.
+     */
+    public static class Benchmark {
+        private static final String[][] MENU = {
+                {"Whole Wheat Bun", "Tomato Sauce", "Cheddar", null},
+                {"Sesame Bun", "Mayo", "Swiss", "Chicken Patty"},
+                {"Brioche Bun", "BBQ Sauce", "Cheddar", "Beef Patty"},
+                {"Sesame Bun", "Mustard", "Mozzarella", "Veg Patty"},
+        };
+
+        // Products escape here, so the JIT cannot scalar-replace them away
+        private static final Object[] retained = new Object[1024];
+
+        public static void main(String[] args) throws IOException {
+            int orders = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+            Path file = Files.createTempFile("orders", ".ndjson");
+            try {
+                write(file, orders);
+                System.out.printf("%,d orders, %,d MB%n", orders, Files.size(file) >> 20);
+                for (int round = 0; round < 3; round++) {  // earlier rounds warm up the JIT
+                    long[] allocated = new long[1];
+                    long start = System.nanoTime();
+                    long mapCount = allocatedBy(allocated, () -> readWithMaps(file));
+                    long mapNanos = System.nanoTime() - start;
+                    long mapBytes = allocated[0];
+
+                    BurgerOrderReader reader = new BurgerOrderReader();
+                    long streamCount = allocatedBy(allocated, () -> reader.readFile(file, Benchmark::retain));
+                    if (round == 2) {
+                        System.out.printf("readLine + Map     : %,12.0f orders/s %8.1f bytes/order%n",
+                                mapCount * 1e9 / mapNanos, (double) mapBytes / mapCount);
+                        System.out.printf("BurgerOrderReader  : %,12.0f orders/s %8.1f bytes/order%n",
+                                reader.recordsPerSecond(), (double) allocated[0] / streamCount);
+                    }
+                }
+            } finally {
+                Files.delete(file);
+            }
+        }
+
+        private static void retain(Builder.Burger burger) {
+            retained[System.identityHashCode(burger) & 1023] = burger;
+        }
+
+        private static void write(Path file, int orders) throws IOException {
+            try (BufferedWriter out = Files.newBufferedWriter(file)) {
+                for (int i = 0; i < orders; i++) {
+                    String[] order = MENU[i % MENU.length];
+                    out.write("{\"id\":" + i + ",\"bun\":\"" + order[0] + "\",\"sauce\":\"" + order[1]
+                            + "\",\"cheese\":\"" + order[2] + "\",\"meat\":"
+                            + (order[3] == null ? "null" : "\"" + order[3] + "\"") + "}\n");
+                }
+            }
+        }
+
+        // The approach being replaced: every key and value becomes a String in a Map
+        private static long readWithMaps(Path file) throws IOException {
+            long count = 0;
+            try (BufferedReader in = Files.newBufferedReader(file)) {
+                String text;
+                while ((text = in.readLine()) != null) {
+                    Map<String, String> fields = new HashMap<>();
+                    for (String pair : text.substring(1, text.length() - 1).split(",")) {
+                        int colon = pair.indexOf(':');
+                        String key = pair.substring(1, colon - 1);
+                        String value = pair.substring(colon + 1);
+                        boolean quoted = value.startsWith("\"");
+                        fields.put(key, value.equals("null") ? null : quoted ? value.substring(1, value.length() - 1) : value);
+                    }
+                    Builder.Burger burger = new Builder.Burger.BurgerBuilder()
+                            .setBun(fields.get("bun"))
+                            .setSauce(fields.get("sauce"))
+                            .setCheese(fields.get("cheese"))
+                            .setMeat(fields.get("meat"))
+                            .build();
+                    retain(burger);
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        interface Run {
+            long run() throws IOException;
+        }
+
+        private static long allocatedBy(long[] allocated, Run run) throws IOException {
+            com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().getId();
+            long before = mx.getThreadAllocatedBytes(threadId);
+            long result = run.run();
+            allocated[0] = mx.getThreadAllocatedBytes(threadId) - before;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package CreationalDesignPattern;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ *
+ * ✅ Definition:
+ * A lazy deep clone: fork() returns a second view of the same object graph in O(1), and a node is copied
+ * only when one of the views first writes to it.
+ *
+ * 🎯 Why?
+ * Most clones (config snapshots, templates) are never modified, or only in a few places.
+ * A full deep copy costs O(graph); copy-on-write costs O(modified nodes).
+ *
+ * 🔨 How it works:
+ * Each view remembers which nodes it owns (nodes it copied itself). Everything else is shared.
+ *
+ * edit("address") walks the field path from the root. Every shared node on the way is shallow-copied
+ * (DeepCopier.shallowCopy) and re-linked into its owned parent, so the other view keeps the old nodes.
+ *
+ * A path can also step into lists and arrays by index and into maps by String key: edit("items.3")
+ * copies the list and then its fourth element, so one element can be changed without touching the
+ * other view. The rest of the elements stay shared until they are edited themselves.
+ *
+ * fork() makes every node shared again for both views, so whichever side writes first pays for the copy.
+ * Writes through the original view are isolated from the fork just like writes through the fork.
+ *
+ * ⚡ Caution:
+ * read() is a read-only view: write only to objects returned by edit(), never through read().
+ *
+ * The graph must not be changed behind the views' back (for example through an old reference to the root).
+ *
+ * A node reachable by two paths is copied on the path that is edited; the other path keeps the shared node.
+ *
+ * Not thread-safe; a fork can be handed to another thread.
+ *
+ * 📌 Usage:
+ * CopyOnWriteClone<Student> original = CopyOnWriteClone.of(student);
+ * CopyOnWriteClone<Student> clone = original.fork();                  // O(1)
+ * original.<Address>edit("address").city = "Mumbai";                  // copies Student and Address only
+ * clone.read().display();                                              // still Delhi
+ *
+ */
+public class CopyOnWriteClone<T> {
+
+    private final DeepCopier copier;
+    private T root;
+    private Set<Object> owned = newIdentitySet();
+    private long copiedNodes;
+
+    private CopyOnWriteClone(DeepCopier copier, T root) {
+        this.copier = copier;
+        this.root = root;
+    }
+
+    // The graph itself is never modified; from now on change it only through this view (or its forks)
+    public static <T> CopyOnWriteClone<T> of(T root) {
+        return of(root, DeepCopier.DEFAULT);
+    }
+
+    public static <T> CopyOnWriteClone<T> of(T root, DeepCopier copier) {
+        if (root == null) {
+            throw new IllegalArgumentException("root must not be null");
+        }
+        return new CopyOnWriteClone<>(copier, root);
+    }
+
+    // Lazy clone: shares the whole graph, O(1)
+    public CopyOnWriteClone<T> fork() {
+        owned = newIdentitySet();  // what this view owned is now shared with the fork
+        return new CopyOnWriteClone<>(copier, root);
+    }
+
+    // Current graph, to be read only
+    public T read() {
+        return root;
+    }
+
+    // The root, owned by this view and safe to modify
+    public T edit() {
+        root = own(root);
+        return root;
+    }
+
+    /**
+     * The node at a dot-separated path ("address", "manager.address", "items.3.supplier"), owned by this
+     * view and safe to modify. A segment is a reference field, a List/array index, or a Map key (String
+     * keys only). Every node on the path is copied first if it is still shared.
+     */
+    @SuppressWarnings("unchecked")
+    public <N> N edit(String path) {
+        Object node = edit();
+        if (path.isEmpty()) {
+            return (N) node;
+        }
+        for (String segment : path.split("\\.")) {
+            Object child = child(node, segment, path);
+            if (child == null) {
+                throw new IllegalArgumentException("'" + segment + "' is null on path " + path);
+            }
+            Object ownedChild = own(child);
+            if (ownedChild != child) {
+                relink(node, segment, ownedChild, path);
+            }
+            node = ownedChild;
+        }
+        return (N) node;
+    }
+
+    private Object child(Object node, String segment, String path) {
+        if (node instanceof List) {
+            List<?> list = (List<?>) node;
+            return list.get(index(segment, list.size(), path));
+        }
+        if (node instanceof Object[]) {
+            Object[] array = (Object[]) node;
+            return array[index(segment, array.length, path)];
+        }
+        if (node instanceof Map) {
+            return ((Map<?, ?>) node).get(segment);
+        }
+        return copier.readField(node, segment);
+    }
+
+    // node is owned by this view, so writing into it is invisible to the other views
+    @SuppressWarnings("unchecked")
+    private void relink(Object node, String segment, Object ownedChild, String path) {
+        if (node instanceof List) {
+            List<Object> list = (List<Object>) node;
+            list.set(index(segment, list.size(), path), ownedChild);
+        } else if (node instanceof Object[]) {
+            Object[] array = (Object[]) node;
+            array[index(segment, array.length, path)] = ownedChild;
+        } else if (node instanceof Map) {
+            ((Map<Object, Object>) node).put(segment, ownedChild);
+        } else {
+            copier.writeField(node, segment, ownedChild);
+        }
+    }
+
+    private static int index(String segment, int size, String path) {
+        int index;
+        try {
+            index = Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + segment + "' is not an index on path " + path);
+        }
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Index " + index + " out of bounds for size " + size
+                    + " on path " + path);
+        }
+        return index;
+    }
+
+    // Nodes this view has copied so far (the work done instead of a full deep copy)
+    public long getCopiedNodes() {
+        return copiedNodes;
+    }
+
+    // A fully independent deep copy of the current view
+    public T materialize() {
+        return copier.copy(root);
+    }
+
+    private <N> N own(N node) {
+        if (owned.contains(node)) {
+            return node;
+        }
+        N copy = copier.shallowCopy(node);
+        if (copy != node) {  // immutable nodes are shared as they are
+            owned.add(copy);
+            copiedNodes++;
+        }
+        return copy;
+    }
+
+    private static Set<Object> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Snapshot of a 100k-node graph followed by one edit near the root: full deep copy (DeepCopier and
+     * serialization) versus fork() + edit().
+     */
+    public static class Benchmark {
+
+        // Keeps the JIT from discarding the snapshots
+        private static volatile Object blackhole;
+
+        public static void main(String[] args) {
+            int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+            DeepCopier.Benchmark.Node graph = DeepCopier.Benchmark.graph(nodes);
+            CopyOnWriteClone<DeepCopier.Benchmark.Node> live = CopyOnWriteClone.of(graph);
+
+            for (int round = 0; round < 3; round++) {  // earlier rounds warm up the JIT
+                long start = System.nanoTime();
+                DeepCopier.Benchmark.Node serialized = DeepCopy.DeepCloneUtility.deepCloneBySerialization(graph);
+                serialized.label = "edited";
+                long serialNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                DeepCopier.Benchmark.Node copied = DeepCopier.DEFAULT.copy(graph);
+                copied.label = "edited";
+                long copyNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                CopyOnWriteClone<DeepCopier.Benchmark.Node> snapshot = live.fork();
+                snapshot.edit().label = "edited";
+                long forkNanos = System.nanoTime() - start;
+
+                blackhole = serialized;
+                blackhole = copied;
+                blackhole = snapshot;
+                if (round == 2) {
+                    System.out.printf("serialization clone + edit : %,14d ns%n", serialNanos);
+                    System.out.printf("DeepCopier clone + edit    : %,14d ns%n", copyNanos);
+                    System.out.printf("fork + edit                : %,14d ns  (%d node copied)%n",
+                            forkNanos, snapshot.getCopiedNodes());
+                    System.out.println("original untouched: " + graph.label);  // Output: node-0
+                }
+            }
+        }
+    }
+}
@@ -36,6 +36,16 @@ import java.io.*;
  *
  * For high-performance cases, manual deep cloning is better.
  *
+ * 🚀 DeepCloneUtility.deepClone now uses {@link DeepCopier}: a field-by-field copy with a cached plan per class,
+ * no Serializable requirement, shared references and cycles preserved. When the graph holds a JDK type DeepCopier
+ * cannot rebuild (List.of, Arrays.asList, unmodifiable wrappers, Date, ...), a Serializable object falls back to
+ * the serialization round trip.
+ * deepCloneBySerialization keeps the original round trip; streamingClone serializes through a bounded pipe
+ * ({@link StreamingDeepClone}) so the serialized form is never held in memory as a whole.
+ * Both throw DeepCopier.CopyException on failure instead of returning null.
+ *
+ * 💤 Lazy mode: {@link CopyOnWriteClone} forks a graph in O(1) and copies a node only when it is first written.
+ *
  * 🔥 Summary Table:
  * Feature	                            Shallow Clone	            Deep Clone via Serialization
  * ---------------------------------------------------------------------------------------------------
@@ -47,7 +57,7 @@ import java.io.*;
  *
  */
 public class DeepCopy {
-    public class Address implements Serializable {
+    public static class Address implements Serializable {
         String city;
 
         public Address(String city) {
@@ -55,7 +65,7 @@ public class DeepCopy {
         }
     }
 
-    public class Student implements Serializable {
+    public static class Student implements Serializable {
         String name;
         Address address;
 
@@ -71,9 +81,22 @@ public class DeepCopy {
 
     public static class DeepCloneUtility {
 
+        // Generic method for deep cloning: field-by-field copy, or serialization for graphs DeepCopier has no plan for
+        public static <T> T deepClone(T object) {
+            try {
+                return DeepCopier.DEFAULT.copy(object);
+            } catch (DeepCopier.CopyException e) {
+                // e.g. List.of, Arrays.asList, Collections.unmodifiableMap, Date: no field plan, but Serializable
+                if (object instanceof Serializable) {
+                    return deepCloneBySerialization(object);
+                }
+                throw e;
+            }
+        }
+
         // Generic method for deep cloning using serialization
         @SuppressWarnings("unchecked")
-        public static <T> T deepClone(T object) {
+        public static <T> T deepCloneBySerialization(T object) {
             try {
                 ByteArrayOutputStream baos = new ByteArrayOutputStream();
                 ObjectOutputStream oos = new ObjectOutputStream(baos);
@@ -88,10 +111,14 @@ public class DeepCopy {
                 return (T) ois.readObject();
 
             } catch (IOException | ClassNotFoundException e) {
-                e.printStackTrace();
-                return null;
+                throw new DeepCopier.CopyException("Deep clone of " + object.getClass().getName() + " failed", e);
             }
         }
+
+        // Serialization with writer and reader running concurrently through a small pipe: constant extra memory
+        public static <T extends Serializable> T streamingClone(T object) {
+            return StreamingDeepClone.deepClone(object);
+        }
     }
 
     public class Main {
@@ -110,6 +137,16 @@ public class DeepCopy {
             // Display both students
             student1.display(); // Should show: Mumbai
             student2.display(); // Should still show: Delhi (deep clone success)
+
+            // Lazy clone: nothing is copied until one side writes
+            CopyOnWriteClone<Student> original = CopyOnWriteClone.of(new Student("John", new Address("Delhi")));
+            CopyOnWriteClone<Student> lazyClone = original.fork();
+
+            // Change the original address (copies Student and Address for the original only)
+            original.<Address>edit("address").city = "Mumbai";
+
+            original.read().display();  // Should show: Mumbai
+            lazyClone.read().display(); // Should still show: Delhi
         }
     }
 
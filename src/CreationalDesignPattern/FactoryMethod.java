@@ -1,5 +1,28 @@
 package CreationalDesignPattern;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
 /**
  * ✅ Definition:
  * The Factory Method Pattern defines an interface for creating an object, but lets the subclasses
@@ -50,14 +73,316 @@ public class FactoryMethod {
     }
 
     public class CoffeeFactory {
+        // Initial per-batch cache size: distinct types a batch usually orders
+        private static final int DEFAULT_BATCH_TYPES = 16;
+
+        // Built once; lookups never lock, runtime registrations publish a new table
+        private final CoffeeRegistry registry = new CoffeeRegistry();
+        // Coffee types contributed by plugins, loaded the first time each one is ordered
+        private final CoffeePluginIndex plugins;
+
+        public CoffeeFactory() {
+            this(FactoryMethod.class.getClassLoader());
+        }
+
+        public CoffeeFactory(ClassLoader pluginLoader) {
+            this.plugins = new CoffeePluginIndex(pluginLoader);
+            // Latte and Cappuccino hold no state, so every order can share one instance
+            registry.register("Latte", new Latte());
+            registry.register("Cappuccino", new Cappuccino());
+        }
+
         // Factory Method
         public Coffee getCoffee(String type) {
-            if (type.equalsIgnoreCase("Latte")) {
-                return new Latte();
-            } else if (type.equalsIgnoreCase("Cappuccino")) {
-                return new Cappuccino();
+            Supplier<? extends Coffee> maker = resolve(type);
+            return maker != null ? maker.get() : null;
+        }
+
+        // Registry first; on a miss, a plugin providing the type is loaded and registered
+        private Supplier<? extends Coffee> resolve(String type) {
+            Supplier<? extends Coffee> maker = registry.find(type);
+            if (maker != null) {
+                return maker;
+            }
+            return plugins.load(type, registry);
+        }
+
+        /**
+         * Bulk variant of getCoffee for order ingestion.
+         * Each distinct type is resolved once per batch and the result array is allocated once.
+         * Unknown types are reported to {@code unknown} (with their position in {@code types}) and left
+         * out of the result, so it never contains nulls.
+         */
+        public Coffee[] getCoffees(List<String> types, UnknownTypeHandler unknown) {
+            Coffee[] coffees = new Coffee[types.size()];
+            BatchResolver resolver = new BatchResolver(coffees.length);
+            int count = 0;
+            for (int i = 0; i < coffees.length; i++) {
+                String type = types.get(i);
+                Supplier<? extends Coffee> maker = resolver.resolve(type);
+                if (maker == null) {
+                    unknown.unknownType(i, type);
+                } else {
+                    coffees[count++] = maker.get();
+                }
+            }
+            return count == coffees.length ? coffees : Arrays.copyOf(coffees, count);
+        }
+
+        // Streaming variant: same per-batch resolution, constant memory for any number of orders
+        public void getCoffees(Iterator<String> types, Consumer<? super Coffee> orders, UnknownTypeHandler unknown) {
+            BatchResolver resolver = new BatchResolver(DEFAULT_BATCH_TYPES);
+            for (int i = 0; types.hasNext(); i++) {
+                String type = types.next();
+                Supplier<? extends Coffee> maker = resolver.resolve(type);
+                if (maker == null) {
+                    unknown.unknownType(i, type);
+                } else {
+                    orders.accept(maker.get());
+                }
             }
-            return null;
+        }
+
+        /**
+         * Remembers the makers of known types for the duration of one batch, however many spellings it
+         * has. Misses are not cached (every distinct bad input would stay in memory); the plugin index
+         * answers them without taking a lock.
+         */
+        private class BatchResolver {
+            private final Map<String, Supplier<? extends Coffee>> resolved;
+            private String lastType;
+            private Supplier<? extends Coffee> lastMaker;
+
+            // Sized for the batch, up to a typical menu; larger batches grow the map as needed
+            BatchResolver(int batchSize) {
+                int expected = Math.min(batchSize, DEFAULT_BATCH_TYPES);
+                this.resolved = new HashMap<>(expected * 4 / 3 + 1);
+            }
+
+            Supplier<? extends Coffee> resolve(String type) {
+                // Orders often arrive in runs of the same type
+                if (type.equals(lastType)) {
+                    return lastMaker;
+                }
+                Supplier<? extends Coffee> maker = resolved.get(type);
+                if (maker == null) {
+                    maker = CoffeeFactory.this.resolve(type);
+                    if (maker != null) {
+                        resolved.put(type, maker);
+                    }
+                }
+                lastType = type;
+                lastMaker = maker;
+                return maker;
+            }
+        }
+
+        // Stateless product: the same instance is returned for every order
+        public void register(String type, Coffee sharedInstance) {
+            registry.register(type, sharedInstance);
+        }
+
+        // Stateful product: a new instance per order
+        public void register(String type, Supplier<? extends Coffee> supplier) {
+            registry.register(type, supplier);
+        }
+    }
+
+    // Side channel for order types the factory does not know
+    public interface UnknownTypeHandler {
+        void unknownType(int index, String type);
+    }
+
+    /**
+     * Plugin coffee types, discovered the ServiceLoader way but loaded lazily.
+     *
+     * A plugin jar lists its Coffee implementations in the standard provider-configuration file
+     * META-INF/services/CreationalDesignPattern.FactoryMethod$Coffee; the type name is the class's simple name.
+     *
+     * ServiceLoader itself would load and instantiate every provider up front. Instead this index only
+     * reads those files (text, no class loading) the first time an unknown type is ordered, and loads a
+     * plugin class when its type is ordered for the first time. Startup cost does not grow with the
+     * number of plugins. Plugin coffees must have a public no-arg constructor and, like the built-in
+     * ones, are treated as stateless: one shared instance per type.
+     *
+     * After the scan, an order for a type no plugin provides is answered from the index without taking
+     * the lock. If two plugins share a simple name, ordering that type throws an IllegalStateException
+     * naming both classes instead of silently picking one.
+     */
+    static final class CoffeePluginIndex {
+        private static final String SERVICE_FILE = "META-INF/services/" + Coffee.class.getName();
+
+        private final ClassLoader loader;
+        // Case-folded type name -> provider class name; built once on the first miss, never changed after
+        private volatile Map<String, String> classNames;
+        // Case-folded type names claimed by more than one provider -> the competing class names
+        private volatile Map<String, List<String>> collisions;
+
+        CoffeePluginIndex(ClassLoader loader) {
+            this.loader = loader;
+        }
+
+        Supplier<? extends Coffee> load(String type, CoffeeRegistry registry) {
+            Map<String, String> index = classNames;
+            if (index != null && !index.containsKey(type.toLowerCase(Locale.ROOT))) {
+                return null;  // scanned already and no plugin has this name: answer without the lock
+            }
+            return loadPlugin(type, registry);
+        }
+
+        private synchronized Supplier<? extends Coffee> loadPlugin(String type, CoffeeRegistry registry) {
+            Supplier<? extends Coffee> maker = registry.find(type);
+            if (maker != null) {
+                return maker;  // another thread loaded it while we waited
+            }
+            if (classNames == null) {
+                readIndex();
+            }
+            String key = type.toLowerCase(Locale.ROOT);
+            List<String> competing = collisions.get(key);
+            if (competing != null) {
+                throw new IllegalStateException("Coffee type " + type + " is provided by more than one plugin: "
+                        + competing);
+            }
+            String className = classNames.get(key);
+            if (className == null) {
+                return null;
+            }
+            try {
+                Class<? extends Coffee> plugin = Class.forName(className, true, loader).asSubclass(Coffee.class);
+                registry.register(type, plugin.getConstructor().newInstance());
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IllegalStateException("Could not load coffee plugin " + className, e);
+            }
+            return registry.find(type);
+        }
+
+        // Fills collisions first, so a reader that sees classNames also sees collisions
+        private void readIndex() {
+            Map<String, String> index = new HashMap<>();
+            Map<String, List<String>> clashes = new HashMap<>();
+            try {
+                Enumeration<URL> files = loader.getResources(SERVICE_FILE);
+                while (files.hasMoreElements()) {
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(files.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            int comment = line.indexOf('#');
+                            String className = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                            if (!className.isEmpty()) {
+                                String simpleName = className.substring(
+                                        Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1);
+                                String key = simpleName.toLowerCase(Locale.ROOT);
+                                String previous = index.putIfAbsent(key, className);
+                                if (previous != null && !previous.equals(className)) {
+                                    clashes.computeIfAbsent(key, k -> new ArrayList<>(List.of(previous)))
+                                            .add(className);
+                                }
+                            }
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + SERVICE_FILE, e);
+            }
+            collisions = clashes;
+            classNames = index;
+        }
+    }
+
+    /**
+     * Case-insensitive type → product lookup used by CoffeeFactory.
+     *
+     * Open addressing over arrays with a case-folded hash stored per slot, so a lookup neither
+     * lower-cases the key nor allocates, and its cost does not grow with the number of types.
+     * The table is copy-on-write: readers take the current volatile snapshot without locking,
+     * writers (rare, synchronized) publish a new one.
+     */
+    static final class CoffeeRegistry {
+
+        private static final class Table {
+            final String[] keys;
+            final int[] hashes;
+            final Supplier<?>[] makers;
+            final int size;
+
+            Table(int capacity, int size) {
+                this.keys = new String[capacity];
+                this.hashes = new int[capacity];
+                this.makers = new Supplier<?>[capacity];
+                this.size = size;
+            }
+        }
+
+        private volatile Table table = new Table(16, 0);
+
+        @SuppressWarnings("unchecked")
+        Supplier<? extends Coffee> find(String type) {
+            Table current = table;
+            int mask = current.keys.length - 1;
+            int hash = foldedHash(type);
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                String key = current.keys[i];
+                if (key == null) {
+                    return null;
+                }
+                if (current.hashes[i] == hash && key.length() == type.length()
+                        && key.regionMatches(true, 0, type, 0, type.length())) {
+                    return (Supplier<? extends Coffee>) current.makers[i];
+                }
+            }
+        }
+
+        void register(String type, Coffee sharedInstance) {
+            register(type, () -> sharedInstance);
+        }
+
+        synchronized void register(String type, Supplier<? extends Coffee> maker) {
+            Table current = table;
+            boolean replacing = find(type) != null;
+            int size = replacing ? current.size : current.size + 1;
+            // Keep the load factor under 0.5 so probe chains stay short
+            int capacity = current.keys.length;
+            while (size * 2 > capacity) {
+                capacity <<= 1;
+            }
+            Table next = new Table(capacity, size);
+            for (int i = 0; i < current.keys.length; i++) {
+                if (current.keys[i] != null && !current.keys[i].equalsIgnoreCase(type)) {
+                    insert(next, current.keys[i], current.hashes[i], current.makers[i]);
+                }
+            }
+            insert(next, type, foldedHash(type), maker);
+            table = next;
+        }
+
+        private static void insert(Table table, String key, int hash, Supplier<?> maker) {
+            int mask = table.keys.length - 1;
+            int i = hash & mask;
+            while (table.keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            table.keys[i] = key;
+            table.hashes[i] = hash;
+            table.makers[i] = maker;
+        }
+
+        // Same folding as equalsIgnoreCase, so "LATTE" and "latte" hash alike
+        private static int foldedHash(String type) {
+            int h = 0;
+            for (int i = 0; i < type.length(); i++) {
+                char c = type.charAt(i);
+                if (c < 0x80) {
+                    c = (c >= 'A' && c <= 'Z') ? (char) (c | 0x20) : c;  // ASCII fast path
+                } else {
+                    c = Character.toLowerCase(Character.toUpperCase(c));
+                }
+                h = 31 * h + c;
+            }
+            // Spread the bits so similar names ("Blend1", "Blend2") don't cluster in the table
+            h *= 0x9E3779B9;
+            return h ^ (h >>> 15);
         }
     }
 
@@ -71,6 +396,136 @@ public class FactoryMethod {
 
             Coffee coffee2 = factory.getCoffee("Cappuccino");
             coffee2.prepare();
+
+            // Bulk orders: each type resolved once, unknown types reported instead of returned as null
+            Coffee[] batch = factory.getCoffees(List.of("Latte", "Latte", "Mocha", "Cappuccino"),
+                    (index, type) -> System.out.println("Unknown coffee at " + index + ": " + type));
+            for (Coffee coffee : batch) {
+                coffee.prepare();
+            }
+        }
+    }
+
+    /**
+     * Lookup cost of CoffeeFactory.getCoffee as the number of registered types grows from 2 to 10,000,
+     * and per-order cost of getCoffee in a loop versus the bulk getCoffees.
+     */
+    public static class Benchmark {
+        private static final int LOOKUPS = 20_000_000;
+
+        public static void main(String[] args) {
+            Coffee espresso = () -> System.out.println("Preparing an Espresso.");
+            for (int types : new int[] {2, 10, 100, 1_000, 10_000}) {
+                CoffeeFactory factory = new FactoryMethod().new CoffeeFactory();
+                for (int i = 2; i < types; i++) {
+                    factory.register("Blend" + i, espresso);
+                }
+                String[] queries = {"Latte", "CAPPUCCINO", "latte", "Blend" + (types - 1), "unknown"};
+
+                long hits = 0;
+                long start = 0;
+                for (int round = 0; round < 2; round++) {  // first round is warmup
+                    start = System.nanoTime();
+                    for (int i = 0; i < LOOKUPS; i++) {
+                        if (factory.getCoffee(queries[i % queries.length]) != null) {
+                            hits++;
+                        }
+                    }
+                }
+                double nanos = (double) (System.nanoTime() - start) / LOOKUPS;
+                System.out.printf("%,7d types: %6.2f ns/lookup (hits %d)%n", types, nanos, hits);
+            }
+
+            // Order ingestion: getCoffee in a loop versus one getCoffees call per batch
+            CoffeeFactory factory = new FactoryMethod().new CoffeeFactory();
+            List<String> orders = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                orders.add(i % 3 == 0 ? "Cappuccino" : "Latte");
+            }
+            int batches = 20_000;
+            long loopNanos = 0;
+            long batchNanos = 0;
+            long made = 0;
+            for (int round = 0; round < 2; round++) {  // first round is warmup
+                long start = System.nanoTime();
+                for (int b = 0; b < batches; b++) {
+                    for (String order : orders) {
+                        made += factory.getCoffee(order) != null ? 1 : 0;
+                    }
+                }
+                loopNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int b = 0; b < batches; b++) {
+                    made += factory.getCoffees(orders, (index, type) -> { }).length;
+                }
+                batchNanos = System.nanoTime() - start;
+            }
+            long total = (long) batches * orders.size();
+            System.out.printf("getCoffee loop : %6.2f ns/order%n", (double) loopNanos / total);
+            System.out.printf("getCoffees     : %6.2f ns/order (%d made)%n", (double) batchNanos / total, made);
+        }
+    }
+
+    /**
+     * Time-to-first-order with 0, 100 and 500 plugin coffee types on the class path.
+     * Each run is a fresh JVM so class loading is measured cold; plugins are generated and compiled
+     * into a temp directory with the JDK compiler.
+     */
+    public static class PluginStartupBenchmark {
+        public static void main(String[] args) throws Exception {
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            if (compiler == null) {
+                System.out.println("Needs a JDK (javax.tools compiler) to generate plugins");
+                return;
+            }
+            for (int plugins : new int[] {0, 100, 500}) {
+                Path dir = Files.createTempDirectory("coffee-plugins");
+                List<String> classNames = new ArrayList<>();
+                List<File> sources = new ArrayList<>();
+                for (int i = 0; i < plugins; i++) {
+                    Path source = dir.resolve("Blend" + i + ".java");
+                    Files.writeString(source, "package plugins;\n"
+                            + "public class Blend" + i + " implements " + Coffee.class.getCanonicalName() + " {\n"
+                            + "    public void prepare() { System.out.println(\"Preparing Blend " + i + ".\"); }\n"
+                            + "}\n");
+                    sources.add(source.toFile());
+                    classNames.add("plugins.Blend" + i);
+                }
+                if (plugins > 0) {
+                    StandardJavaFileManager files = compiler.getStandardFileManager(null, null, null);
+                    compiler.getTask(null, files, null,
+                            List.of("-d", dir.toString(), "-cp", System.getProperty("java.class.path")),
+                            null, files.getJavaFileObjectsFromFiles(sources)).call();
+                    files.close();
+                }
+                Path services = dir.resolve(CoffeePluginIndex.SERVICE_FILE);
+                Files.createDirectories(services.getParent());
+                Files.write(services, classNames);
+
+                String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+                Process process = new ProcessBuilder(java, "-cp",
+                        System.getProperty("java.class.path") + File.pathSeparator + dir,
+                        FirstOrder.class.getName(), plugins > 0 ? "Blend0" : "Latte")
+                        .inheritIO()
+                        .start();
+                process.waitFor();
+                System.out.println("  (" + plugins + " plugins)");
+            }
+        }
+
+        // Runs in the forked JVM: factory construction plus the first built-in and first plugin order
+        public static class FirstOrder {
+            public static void main(String[] args) {
+                long start = System.nanoTime();
+                CoffeeFactory factory = new FactoryMethod().new CoffeeFactory();
+                Coffee latte = factory.getCoffee("Latte");
+                long firstOrder = System.nanoTime();
+                Coffee plugin = factory.getCoffee(args[0]);
+                long firstPluginOrder = System.nanoTime();
+                System.out.printf("first order %,d µs, first plugin order %,d µs (%s)",
+                        (firstOrder - start) / 1_000, (firstPluginOrder - firstOrder) / 1_000,
+                        latte != null && plugin != null ? "ok" : "missing");
+            }
         }
     }
 
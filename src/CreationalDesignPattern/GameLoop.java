@@ -0,0 +1,242 @@
+package CreationalDesignPattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ *
+ * ✅ Definition:
+ * Fixed-tick game loop over the entities of {@link AbstractFactory} game families, updated in parallel.
+ *
+ * 🔨 How it works:
+ * Entities live in an {@link AbstractFactory.EntityStore}, spawned from a GameFactory family, so each one
+ * moves and fights with its family's vehicle speed, weapon damage and ammo.
+ *
+ * State is double-buffered: the loop keeps two stores holding the same entities at the same indexes.
+ * A tick reads only the front store and writes only the back one, then the two swap. No partition ever
+ * reads what another is writing, so there are no locks.
+ *
+ * Entities are split into fixed partitions and each tick runs one ForkJoin task per partition.
+ *
+ * The theme (GameFactory family) is read once at the start of each tick. switchTheme() just publishes a
+ * new family; the next tick applies its speed, damage and ammo to every entity inside the same parallel
+ * pass, without stopping the loop.
+ *
+ * Every tick reports its wall time, each partition's time and how many partitions straggled
+ * (took more than 1.5x the median partition).
+ *
+ * ⚡ Caution:
+ * spawn(), despawn() and tick() must be called from one thread at a time (the loop driver).
+ *
+ * 📌 Usage:
+ * GameLoop loop = new GameLoop(game.new FuturisticFactory(), 1_000_000, 16, ForkJoinPool.commonPool(), 60);
+ * TickReport report = loop.tick();
+ *
+ */
+public class GameLoop {
+    private static final double STRAGGLER_FACTOR = 1.5;
+
+    private final ForkJoinPool pool;
+    private final int partitions;
+    private final float dt;
+    private final AtomicReference<AbstractFactory.GameFactory> theme;
+    // Family whose stats the entities currently carry
+    private AbstractFactory.GameFactory applied;
+
+    // Double-buffered state: both stores hold the same entities at the same dense indexes
+    private final AbstractFactory.EntityStore[] stores = new AbstractFactory.EntityStore[2];
+    private int front;
+
+    private final long[] partitionNanos;
+
+    public GameLoop(AbstractFactory.GameFactory family, int entities, int partitions, ForkJoinPool pool,
+                    int ticksPerSecond) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be at least 1: " + partitions);
+        }
+        if (ticksPerSecond < 1) {
+            throw new IllegalArgumentException("ticksPerSecond must be at least 1: " + ticksPerSecond);
+        }
+        this.pool = pool;
+        this.partitions = partitions;
+        this.dt = 1f / ticksPerSecond;
+        this.theme = new AtomicReference<>(family);
+        this.applied = family;
+        this.partitionNanos = new long[partitions];
+        for (int b = 0; b < 2; b++) {
+            stores[b] = new AbstractFactory.EntityStore(entities);
+        }
+        for (int i = 0; i < entities; i++) {
+            spawnInBoth(family);  // not spawn(): a subclass override would run on a half-built loop
+        }
+    }
+
+    // Adds an entity of the given family to both buffers; returns its handle
+    public int spawn(AbstractFactory.GameFactory family) {
+        return spawnInBoth(family);
+    }
+
+    private int spawnInBoth(AbstractFactory.GameFactory family) {
+        int handle = stores[0].spawn(family);
+        stores[1].spawn(family);  // same operations in the same order, so the same handle and index
+        return handle;
+    }
+
+    public void despawn(int handle) {
+        stores[0].despawn(handle);
+        stores[1].despawn(handle);
+    }
+
+    // Takes effect at the next tick boundary; the running tick keeps the family it started with
+    public void switchTheme(AbstractFactory.GameFactory family) {
+        theme.set(family);
+    }
+
+    /**
+     * Advances the world by one tick and returns its timings.
+     * Must be called from one thread at a time (the loop driver).
+     */
+    public TickReport tick() {
+        AbstractFactory.GameFactory family = theme.get();
+        boolean retheme = family != applied;
+        applied = family;
+        AbstractFactory.EntityStats stats = family.entityStats();
+        AbstractFactory.EntityStore read = stores[front];
+        AbstractFactory.EntityStore write = stores[1 - front];
+        int entities = read.size();
+
+        long start = System.nanoTime();
+        List<RecursiveAction> tasks = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            int partition = p;
+            int from = (int) ((long) entities * partition / partitions);
+            int to = (int) ((long) entities * (partition + 1) / partitions);
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    long begin = System.nanoTime();
+                    read.stepInto(write, from, to, dt, stats, retheme);
+                    partitionNanos[partition] = System.nanoTime() - begin;
+                }
+            });
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        long tickNanos = System.nanoTime() - start;
+
+        front = 1 - front;  // publish: the next tick reads what this one wrote
+        return new TickReport(tickNanos, partitionNanos.clone());
+    }
+
+    public int size() {
+        return stores[front].size();
+    }
+
+    public float positionOf(int handle) {
+        return stores[front].positionOf(handle);
+    }
+
+    public float damageDealtBy(int handle) {
+        return stores[front].damageDealtBy(handle);
+    }
+
+    public int ammoOf(int handle) {
+        return stores[front].ammoOf(handle);
+    }
+
+    // Timings of one GameLoop tick
+    public static class TickReport {
+        private final long tickNanos;
+        private final long[] partitionNanos;
+
+        TickReport(long tickNanos, long[] partitionNanos) {
+            this.tickNanos = tickNanos;
+            this.partitionNanos = partitionNanos;
+        }
+
+        public long getTickNanos() {
+            return tickNanos;
+        }
+
+        public long[] getPartitionNanos() {
+            return partitionNanos.clone();
+        }
+
+        // Partitions slower than 1.5x the median partition
+        public int getStragglers() {
+            long[] sorted = partitionNanos.clone();
+            Arrays.sort(sorted);
+            long median = sorted[sorted.length / 2];
+            int stragglers = 0;
+            for (long nanos : partitionNanos) {
+                if (nanos > median * STRAGGLER_FACTOR) {
+                    stragglers++;
+                }
+            }
+            return stragglers;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("tick %.2f ms, %d/%d partitions straggled",
+                    tickNanos / 1e6, getStragglers(), partitionNanos.length);
+        }
+    }
+
+    /**
+     * GameLoop speedup at 1, 2, 4, ... worker threads and then exactly N (default: available processors),
+     * with a theme switch halfway through each run to show the loop keeps ticking across it.
+     */
+    public static class Benchmark {
+        public static void main(String[] args) {
+            int entities = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+            int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+            int ticks = 60;
+            AbstractFactory game = new AbstractFactory();
+
+            double baseline = 0;
+            for (int threads : threadCounts(maxThreads)) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                GameLoop loop = new GameLoop(game.new FuturisticFactory(), entities, threads * 4, pool, 60);
+                long total = 0;
+                int stragglers = 0;
+                TickReport last = null;
+                for (int t = 0; t < ticks; t++) {
+                    if (t == ticks / 2) {
+                        loop.switchTheme(game.new MedievalFactory());
+                    }
+                    last = loop.tick();
+                    if (t >= 10) {  // skip warmup ticks
+                        total += last.getTickNanos();
+                        stragglers += last.getStragglers();
+                    }
+                }
+                pool.shutdown();
+                double avgMillis = total / 1e6 / (ticks - 10);
+                if (threads == 1) {
+                    baseline = avgMillis;
+                }
+                System.out.printf("threads=%2d  %.2f ms/tick  speedup %.2fx  stragglers/tick %.2f  last: %s%n",
+                        threads, avgMillis, baseline / avgMillis, (double) stragglers / (ticks - 10), last);
+            }
+        }
+
+        // 1, 2, 4, ... below max, then max itself once
+        private static List<Integer> threadCounts(int maxThreads) {
+            List<Integer> counts = new ArrayList<>();
+            for (int threads = 1; threads < maxThreads; threads *= 2) {
+                counts.add(threads);
+            }
+            counts.add(Math.max(maxThreads, 1));
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package CreationalDesignPattern;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ *
+ * ✅ Definition:
+ * Allocation check for the parameterized {@link Singleton.Logger} API.
+ *
+ * 📊 What it proves:
+ * Case	                        Expected bytes per call
+ * -----------------------------------------------------------------
+ * Disabled level	            0 (level check only, arguments never touched)
+ * Enabled level	            0 beyond the per-thread output buffer (reused, so ~0 after warmup)
+ * Old log(String) concat	    shown for comparison
+ *
+ * Bytes come from the per-thread allocation counter, the same source a GC profiler reads.
+ * The sink counts characters instead of copying them, so only the logger's own allocation is measured.
+ *
+ */
+public class LoggerAllocationBenchmark {
+
+    private static final int CALLS = 5_000_000;
+
+    // Consumes the line in place, like MappedFileLogSink does, without keeping a copy
+    private static class CountingSink implements Singleton.LogSink {
+        long chars;
+
+        @Override
+        public void write(CharSequence line) {
+            chars += line.length();
+        }
+    }
+
+    public static void main(String[] args) {
+        Singleton.Logger logger = Singleton.Logger.getInstance();
+        CountingSink sink = new CountingSink();
+        logger.setSink(sink);
+        logger.setLevel(Singleton.Level.INFO);
+
+        String orderId = "A-17";
+        report("disabled log(DEBUG, fmt, long, long)",
+                () -> logger.log(Singleton.Level.DEBUG, "Order {} took {} ms", 17L, 42L));
+        report("disabled log(DEBUG, fmt, Object, long)",
+                () -> logger.log(Singleton.Level.DEBUG, "Order {} took {} ms", orderId, 42L));
+        report("enabled  log(WARN, fmt, long, long)",
+                () -> logger.log(Singleton.Level.WARN, "Order {} took {} ms", 17L, 42L));
+        report("enabled  log(WARN, fmt, Object, long)",
+                () -> logger.log(Singleton.Level.WARN, "Order {} took {} ms", orderId, 42L));
+        report("enabled  log(String) with caller concat",
+                () -> logger.log("Order " + orderId + " took " + System.nanoTime() + " ms"));
+
+        System.out.println("(chars written: " + sink.chars + ")");
+    }
+
+    private static void report(String name, Runnable call) {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < CALLS; i++) {
+            call.run();  // warmup so the JIT has compiled (and escape-analysed) the call
+        }
+        long before = mx.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) {
+            call.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = mx.getThreadAllocatedBytes(thread) - before;
+
+        System.out.printf("%-42s %8.3f bytes/call %8.2f ns/call%n",
+                name, (double) allocated / CALLS, (double) elapsed / CALLS);
+    }
+}
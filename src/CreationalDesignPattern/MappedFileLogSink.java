@@ -0,0 +1,459 @@
+package CreationalDesignPattern;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *
+ * ✅ Definition:
+ * A file backend for {@link Singleton.Logger} that never makes a syscall per line.
+ *
+ * 🔨 How it works:
+ * Every thread appends (UTF-8 encoded) into its own byte buffer, so writers never contend with each other.
+ *
+ * A full buffer is handed to the flusher thread, which copies it into a memory-mapped log segment
+ * (FileChannel.map). The OS writes the pages back to disk on its own schedule.
+ *
+ * Segments are pre-sized; when the next buffer does not fit, the flusher rolls to a new segment file.
+ * A buffer only ever holds whole lines, so a line never spans two segments. A single line longer than a
+ * segment is dropped (and counted) instead of failing the sink.
+ *
+ * At most MAX_PENDING full buffers wait for the flusher. When a writer outpaces it, the OverflowPolicy
+ * decides: BLOCK the writer until the flusher catches up, or DROP that buffer's lines and count them
+ * (see {@link AsyncLogSink.OverflowPolicy}). Either way memory stays bounded.
+ *
+ * Every flushInterval the flusher also takes the partial buffers of quiet threads, so their lines show up
+ * without waiting for flush(), and drops the buffers of threads that have ended.
+ *
+ * ⚡ Caution:
+ * The unused tail of the current segment is zero-filled; it is truncated away when the segment is closed
+ * (on roll-over or close()).
+ *
+ * If the flusher fails (disk full, ...), every later write(), flush() and close() throws UncheckedIOException
+ * instead of queueing lines that will never be written.
+ *
+ * Lines from different threads are ordered per thread, not globally.
+ *
+ * Dropped lines (overflow with DROP, over-long lines, a BLOCKed writer interrupted while waiting) are
+ * counted in getDroppedCount().
+ *
+ * 📌 Usage:
+ * Singleton.Logger.getInstance().setSink(new MappedFileLogSink(Path.of("logs"), "app", 64 << 20));
+ *
+ */
+public class MappedFileLogSink implements Singleton.LogSink, AutoCloseable {
+
+    private static final int THREAD_BUFFER_SIZE = 64 * 1024;
+    private static final int POOLED_BUFFERS = 64;
+    private static final int MAX_PENDING = 64;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final long flushIntervalNanos;
+    private final AsyncLogSink.OverflowPolicy overflowPolicy;
+
+    // Buffers of every live thread that has logged, so flush() and close() can reach partial ones
+    private final ConcurrentLinkedQueue<ThreadBuffer> threadBuffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ThreadBuffer> localBuffer = ThreadLocal.withInitial(this::newThreadBuffer);
+
+    private final BlockingQueue<Chunk> completed = new ArrayBlockingQueue<>(MAX_PENDING);
+    private final BlockingQueue<byte[]> freeBuffers = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Owned by the flusher thread
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private volatile int segmentIndex;
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    public MappedFileLogSink(Path directory, String prefix, int segmentSize) throws IOException {
+        this(directory, prefix, segmentSize, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    // flushIntervalMillis: longest time a line can sit in a quiet thread's buffer
+    public MappedFileLogSink(Path directory, String prefix, int segmentSize, long flushIntervalMillis)
+            throws IOException {
+        this(directory, prefix, segmentSize, flushIntervalMillis, AsyncLogSink.OverflowPolicy.BLOCK);
+    }
+
+    // overflowPolicy: what a writer does when MAX_PENDING buffers already wait for the flusher
+    public MappedFileLogSink(Path directory, String prefix, int segmentSize, long flushIntervalMillis,
+                             AsyncLogSink.OverflowPolicy overflowPolicy) throws IOException {
+        if (segmentSize < THREAD_BUFFER_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be at least " + THREAD_BUFFER_SIZE);
+        }
+        if (flushIntervalMillis < 1) {
+            throw new IllegalArgumentException("flushIntervalMillis must be positive: " + flushIntervalMillis);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = overflowPolicy;
+        openSegment();
+
+        this.flusher = new Thread(this::flushLoop, "logger-mmap-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public void write(CharSequence line) {
+        throwIfFailed();  // the flusher is gone: queueing more lines would only grow memory
+        ThreadBuffer buffer = localBuffer.get();
+        // Only contended while flush()/close() drains this thread's partial buffer
+        buffer.lock.lock();
+        try {
+            buffer.append(line);
+        } finally {
+            buffer.lock.unlock();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Path of the segment currently being written
+    public Path currentSegment() {
+        return segmentPath(segmentIndex);
+    }
+
+    /**
+     * Hands every partial thread buffer to the flusher and waits until all of it is in the mapped segment.
+     */
+    @Override
+    public void flush() {
+        for (ThreadBuffer buffer : threadBuffers) {
+            buffer.lock.lock();
+            try {
+                buffer.handOff(true);
+            } finally {
+                buffer.lock.unlock();
+            }
+        }
+        Chunk marker = new Chunk(null, 0, 0);
+        if (!put(marker)) {
+            return;  // interrupted
+        }
+        synchronized (marker) {
+            while (!marker.done && flusher.isAlive()) {
+                try {
+                    marker.wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        throwIfFailed();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        running = false;
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            closeSegment();
+        } catch (IOException e) {
+            failure = e;
+        }
+        throwIfFailed();
+    }
+
+    private void throwIfFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("Mapped log sink failed", failure);
+        }
+    }
+
+    /**
+     * Queues a chunk for the flusher, waiting while MAX_PENDING chunks are ahead of it.
+     * False if the caller was interrupted or the flusher has stopped (after close()); throws if it failed.
+     */
+    private boolean put(Chunk chunk) {
+        try {
+            while (!completed.offer(chunk, 10, TimeUnit.MILLISECONDS)) {
+                throwIfFailed();
+                if (!flusher.isAlive()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Writer side: BLOCK waits for room, DROP gives up at once; false means the chunk's lines are dropped
+    private boolean enqueue(Chunk chunk) {
+        return overflowPolicy == AsyncLogSink.OverflowPolicy.DROP ? completed.offer(chunk) : put(chunk);
+    }
+
+    private ThreadBuffer newThreadBuffer() {
+        ThreadBuffer buffer = new ThreadBuffer();
+        threadBuffers.add(buffer);
+        return buffer;
+    }
+
+    private byte[] takeFreeBuffer() {
+        byte[] bytes = freeBuffers.poll();
+        return bytes != null ? bytes : new byte[THREAD_BUFFER_SIZE];
+    }
+
+    private void flushLoop() {
+        long nextSweep = System.nanoTime() + flushIntervalNanos;
+        while (running || !completed.isEmpty()) {
+            try {
+                Chunk chunk = completed.poll(10, TimeUnit.MILLISECONDS);
+                if (running && System.nanoTime() - nextSweep >= 0) {
+                    sweepThreadBuffers();
+                    nextSweep = System.nanoTime() + flushIntervalNanos;
+                }
+                if (chunk == null) {
+                    continue;
+                }
+                if (chunk.bytes == null) {
+                    // flush() marker: everything queued before it has been copied
+                    synchronized (chunk) {
+                        chunk.done = true;
+                        chunk.notifyAll();
+                    }
+                    continue;
+                }
+                copyToSegment(chunk);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                failure = e;
+                completed.clear();  // never written now; writers get the failure instead
+                return;
+            }
+        }
+    }
+
+    // Hands off partial buffers (time-based flush) and forgets the buffers of threads that have ended
+    private void sweepThreadBuffers() {
+        for (Iterator<ThreadBuffer> it = threadBuffers.iterator(); it.hasNext(); ) {
+            ThreadBuffer buffer = it.next();
+            boolean ended = buffer.ownerEnded();
+            // Never wait here: this is the flusher itself, and a writer blocked on a full queue holds its lock.
+            // A busy buffer or a full queue keeps the lines for the next sweep.
+            if (!buffer.lock.tryLock()) {
+                continue;
+            }
+            try {
+                buffer.tryHandOff();
+                if (ended) {
+                    buffer.release();
+                }
+            } finally {
+                buffer.lock.unlock();
+            }
+            if (ended) {
+                it.remove();
+            }
+        }
+    }
+
+    private void copyToSegment(Chunk chunk) throws IOException {
+        if (chunk.length > segment.remaining()) {
+            closeSegment();
+            segmentIndex++;
+            openSegment();
+        }
+        if (chunk.length > segment.remaining()) {
+            throw new IOException("Log line of " + chunk.length + " bytes exceeds segment size " + segmentSize);
+        }
+        segment.put(chunk.bytes, 0, chunk.length);
+        if (chunk.bytes.length == THREAD_BUFFER_SIZE) {
+            freeBuffers.offer(chunk.bytes);  // recycle; oversized one-off arrays are left to the GC
+        }
+    }
+
+    private void openSegment() throws IOException {
+        channel = FileChannel.open(segmentPath(segmentIndex),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            segment.force();
+            channel.truncate(segment.position());  // drop the unused zero-filled tail
+            channel.close();
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s-%05d.log", prefix, index));
+    }
+
+    // A completed buffer on its way to the flusher; bytes == null marks a flush() request
+    private static class Chunk {
+        final byte[] bytes;
+        final int length;
+        final int lines;
+        boolean done;
+
+        Chunk(byte[] bytes, int length, int lines) {
+            this.bytes = bytes;
+            this.length = length;
+            this.lines = lines;
+        }
+    }
+
+    // One per logging thread; guarded by its own lock (tryLock lets the flusher skip a busy one)
+    private class ThreadBuffer {
+        final ReentrantLock lock = new ReentrantLock();
+        private final WeakReference<Thread> owner = new WeakReference<>(Thread.currentThread());
+        private byte[] bytes = takeFreeBuffer();
+        private int length;
+        private int lines;
+
+        boolean ownerEnded() {
+            Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+
+        // Owner has ended: give the (already handed off) buffer back to the pool
+        void release() {
+            if (bytes != null && length == 0) {
+                freeBuffers.offer(bytes);
+                bytes = null;
+            }
+        }
+
+        void append(CharSequence line) {
+            // Worst case 3 bytes per char plus the newline
+            if (line.length() * 3 + 1 > bytes.length - length) {
+                handOff(false);
+                if (line.length() * 3 + 1 > bytes.length) {
+                    byte[] large = (line + "\n").getBytes(StandardCharsets.UTF_8);
+                    // Longer than a whole segment: it can never be written, so drop just this line
+                    if (large.length > segmentSize || !enqueue(new Chunk(large, large.length, 1))) {
+                        dropped.incrementAndGet();
+                    }
+                    return;
+                }
+            }
+            length = encode(line, bytes, length);
+            bytes[length++] = '\n';
+            lines++;
+        }
+
+        // Writer: the overflow policy applies; flush() and close() always wait for room
+        void handOff(boolean waitForRoom) {
+            if (length > 0) {
+                Chunk chunk = new Chunk(bytes, length, lines);
+                if (waitForRoom ? put(chunk) : enqueue(chunk)) {
+                    bytes = takeFreeBuffer();
+                } else {
+                    dropped.addAndGet(lines);  // keep the array, discard its lines
+                }
+                length = 0;
+                lines = 0;
+            }
+        }
+
+        // Flusher: hand off only if the queue has room
+        void tryHandOff() {
+            if (length > 0 && completed.offer(new Chunk(bytes, length, lines))) {
+                bytes = takeFreeBuffer();
+                length = 0;
+                lines = 0;
+            }
+        }
+    }
+
+    // UTF-8 encodes without creating a String or byte[]; returns the new end offset (out needs 3 bytes per char)
+    static int encode(CharSequence text, byte[] out, int pos) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                out[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                out[pos++] = (byte) (0xC0 | (c >> 6));
+                out[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                out[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                out[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                out[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                out[pos++] = (byte) (0xE0 | (c >> 12));
+                out[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * 1M messages: the current path (println with autoflush, one write syscall per line) versus this sink.
+     * Each path runs a few rounds so the JIT has warmed up; the last round is reported, open and close included.
+     */
+    public static class Benchmark {
+        private static final int MESSAGES = 1_000_000;
+        private static final int ROUNDS = 3;
+
+        public static void main(String[] args) throws IOException {
+            Path dir = Files.createTempDirectory("mapped-log-bench");
+            long consoleNanos = 0;
+            long mappedNanos = 0;
+
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                try (PrintStream out = new PrintStream(new FileOutputStream(dir.resolve("println.log").toFile()), true)) {
+                    Singleton.LogSink console = new Singleton.ConsoleSink(out);
+                    for (int i = 0; i < MESSAGES; i++) {
+                        console.write("Log: order processed");
+                    }
+                }
+                consoleNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                try (MappedFileLogSink mapped = new MappedFileLogSink(dir, "mapped", 64 << 20)) {
+                    for (int i = 0; i < MESSAGES; i++) {
+                        mapped.write("Log: order processed");
+                    }
+                }
+                mappedNanos = System.nanoTime() - start;
+            }
+
+            System.out.printf("println : %,d msg/s%n", MESSAGES * 1_000_000_000L / consoleNanos);
+            System.out.printf("mapped  : %,d msg/s%n", MESSAGES * 1_000_000_000L / mappedNanos);
+            System.out.printf("speedup : %.1fx%n", (double) consoleNanos / mappedNanos);
+        }
+    }
+}
@@ -44,10 +44,13 @@ package CreationalDesignPattern;
  *
  * In Java: Achieved using Cloneable interface and clone() method.
  *
+ * 🚀 Many clones per second:
+ * {@link PrototypeRegistry} keeps pre-warmed templates by id and clones them with the copy constructor
+ * (no checked exception, no Cloneable), one at a time or cloneN(id, count) at once.
  *
  */
 public class Prototype {
-    public class Resume implements Cloneable {
+    public static class Resume implements Cloneable {
 
         private String name;
         private String qualification;
@@ -57,6 +60,20 @@ public class Prototype {
             this.qualification = qualification;
         }
 
+        // Copy constructor: what PrototypeRegistry clones with
+        public Resume(Resume other) {
+            this.name = other.name;
+            this.qualification = other.qualification;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setQualification(String qualification) {
+            this.qualification = qualification;
+        }
+
         public void display() {
             System.out.println("Name: " + name + ", Qualification: " + qualification);
         }
@@ -81,6 +98,17 @@ public class Prototype {
             // Clone the Resume
             Resume copy = original.clone();
             copy.display();
+
+            // Shared templates
+            PrototypeRegistry<Resume> templates = new PrototypeRegistry<>(Resume.class);
+            templates.publish("engineer", new Resume("<name>", "B.Tech"));
+            Resume mine = templates.clone("engineer");
+            mine.setName("John");
+            mine.display();                               // Name: John, Qualification: B.Tech
+
+            templates.update("engineer", template -> template.setQualification("M.Tech"));
+            Resume[] batch = templates.cloneN("engineer", 3);
+            batch[0].display();                           // Name: <name>, Qualification: M.Tech
         }
     }
 }
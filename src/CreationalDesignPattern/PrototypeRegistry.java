@@ -0,0 +1,251 @@
+package CreationalDesignPattern;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ *
+ * ✅ Definition:
+ * A thread-safe registry of prototypes: pre-built template objects, kept by id, that callers clone.
+ * Clones come from the type's copy constructor, so there is no Cloneable and no CloneNotSupportedException.
+ *
+ * 🎯 Why?
+ * Prototype.Resume.clone() goes through Object.clone(): a native call, a checked exception to catch
+ * (Resume turns it into a null return), and a shallow copy whatever the class needs.
+ *
+ * A copy constructor is plain Java code: the JIT inlines it, and the class decides what a copy means.
+ *
+ * 🔨 How it works:
+ * The copy constructor T(T) is looked up once and turned into a UnaryOperator by LambdaMetafactory, the
+ * same way javac compiles Resume::new. Cloning is then a map lookup plus an ordinary constructor call.
+ *
+ * The registry keeps its own private copy of each template, so nobody can change it behind the readers'
+ * back. An update builds a new template and swaps it in with one map write:
+ * readers (ConcurrentHashMap.get) never take a lock, and see either the old template or the new one.
+ *
+ * cloneN(id, count) reads the template once and fills the whole array from it, so a batch is never
+ * half old template, half new.
+ *
+ * ⚡ Caution:
+ * The copy constructor decides how deep a clone is; Resume's is shallow, which is fine for Strings.
+ *
+ * 📌 Usage:
+ * PrototypeRegistry<Resume> templates = new PrototypeRegistry<>(Resume.class);
+ * templates.publish("engineer", new Resume("<name>", "B.Tech"));
+ * Resume mine = templates.clone("engineer");
+ * Resume[] batch = templates.cloneN("engineer", 1_000);
+ *
+ */
+public class PrototypeRegistry<T> {
+
+    private final Class<T> type;
+    private final UnaryOperator<T> copier;
+    private final ConcurrentHashMap<String, T> templates = new ConcurrentHashMap<>();
+
+    // Uses type's copy constructor T(T), which may be private
+    public PrototypeRegistry(Class<T> type) {
+        this(type, copyConstructorOf(type));
+    }
+
+    // Uses any copy function, e.g. Resume::new
+    public PrototypeRegistry(Class<T> type, UnaryOperator<T> copier) {
+        this.type = type;
+        this.copier = copier;
+    }
+
+    // Adds or replaces a template; later changes to template don't affect the registry
+    public void publish(String id, T template) {
+        if (template == null) {
+            throw new IllegalArgumentException("Template '" + id + "' must not be null");
+        }
+        templates.put(id, copier.apply(template));
+    }
+
+    /**
+     * Changes a template: change is applied to a fresh copy, which then replaces the template.
+     * Concurrent updates of the same id run one after the other; readers are never blocked.
+     */
+    public void update(String id, Consumer<T> change) {
+        templates.compute(id, (key, current) -> {
+            if (current == null) {
+                throw new IllegalArgumentException("No template '" + id + "'");
+            }
+            T next = copier.apply(current);
+            change.accept(next);
+            return next;
+        });
+    }
+
+    public boolean remove(String id) {
+        return templates.remove(id) != null;
+    }
+
+    public boolean contains(String id) {
+        return templates.containsKey(id);
+    }
+
+    // Read-only live view; templates change only through publish/update/remove
+    public Set<String> ids() {
+        return Collections.unmodifiableSet(templates.keySet());
+    }
+
+    public T clone(String id) {
+        return copier.apply(template(id));
+    }
+
+    // count clones of one version of the template
+    @SuppressWarnings("unchecked")
+    public T[] cloneN(String id, int count) {
+        T[] clones = (T[]) Array.newInstance(type, count);
+        cloneInto(id, clones, 0, count);
+        return clones;
+    }
+
+    // Fills target[from, to) with clones of one version of the template
+    public void cloneInto(String id, T[] target, int from, int to) {
+        T template = template(id);
+        for (int i = from; i < to; i++) {
+            target[i] = copier.apply(template);
+        }
+    }
+
+    private T template(String id) {
+        T template = templates.get(id);
+        if (template == null) {
+            throw new IllegalArgumentException("No template '" + id + "'");
+        }
+        return template;
+    }
+
+    /**
+     * Compiles type's copy constructor into a UnaryOperator, like a method reference T::new would be.
+     * Falls back to calling the constructor's MethodHandle if the lambda can't be spun.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> UnaryOperator<T> copyConstructorOf(Class<T> type) {
+        MethodHandles.Lookup lookup;
+        MethodHandle constructor;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            constructor = lookup.findConstructor(type, MethodType.methodType(void.class, type));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(type.getName() + " has no copy constructor "
+                    + type.getSimpleName() + "(" + type.getSimpleName() + ")", e);
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(UnaryOperator.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    constructor,
+                    MethodType.methodType(type, type));
+            return (UnaryOperator<T>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            MethodHandle generic = constructor.asType(MethodType.methodType(Object.class, Object.class));
+            return source -> {
+                try {
+                    return (T) generic.invokeExact((Object) source);
+                } catch (RuntimeException | Error rethrown) {
+                    throw rethrown;
+                } catch (Throwable checked) {
+                    throw new IllegalStateException("Copy constructor of " + type.getName() + " failed", checked);
+                }
+            };
+        }
+    }
+
+    /**
+     * Cloning Resume templates: Object.clone() versus the registry (one by one and cloneN), single-threaded,
+     * then with several threads cloning while another keeps updating the template.
+     */
+    public static class Benchmark {
+        private static final int CLONES = 10_000_000;
+        private static final int BATCH = 1_000;
+
+        // Keeps the JIT from discarding the clones
+        private static volatile Object blackhole;
+
+        public static void main(String[] args) throws InterruptedException {
+            int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+            Prototype.Resume original = new Prototype.Resume("<name>", "B.Tech");
+            PrototypeRegistry<Prototype.Resume> registry = new PrototypeRegistry<>(Prototype.Resume.class);
+            registry.publish("engineer", original);
+
+            for (int round = 0; round < 3; round++) {  // earlier rounds warm up the JIT
+                long start = System.nanoTime();
+                for (int i = 0; i < CLONES; i++) {
+                    blackhole = original.clone();
+                }
+                long objectCloneNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < CLONES; i++) {
+                    blackhole = registry.clone("engineer");
+                }
+                long registryNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < CLONES; i += BATCH) {
+                    blackhole = registry.cloneN("engineer", BATCH);
+                }
+                long batchNanos = System.nanoTime() - start;
+
+                long contendedNanos = contended(registry, threads);
+
+                if (round == 2) {
+                    System.out.printf("Object.clone()             : %5.1f ns/clone%n", (double) objectCloneNanos / CLONES);
+                    System.out.printf("registry.clone(id)         : %5.1f ns/clone%n", (double) registryNanos / CLONES);
+                    System.out.printf("registry.cloneN(id, %,d) : %5.1f ns/clone%n", BATCH, (double) batchNanos / CLONES);
+                    System.out.printf("%d readers + 1 updater     : %5.1f ns/clone%n",
+                            threads, (double) contendedNanos / CLONES);
+                }
+            }
+        }
+
+        // threads share CLONES clones while the template is updated continuously
+        private static long contended(PrototypeRegistry<Prototype.Resume> registry, int threads)
+                throws InterruptedException {
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] readers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                readers[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < CLONES / threads; i += BATCH) {
+                        blackhole = registry.cloneN("engineer", BATCH);
+                    }
+                });
+                readers[t].start();
+            }
+            Thread updater = new Thread(() -> {
+                int version = 0;
+                while (!Thread.currentThread().isInterrupted()) {
+                    String qualification = (version++ & 1) == 0 ? "B.Tech" : "M.Tech";
+                    registry.update("engineer", template -> template.setQualification(qualification));
+                }
+            });
+            long begin = System.nanoTime();
+            start.countDown();
+            updater.start();
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            long nanos = System.nanoTime() - begin;
+            updater.interrupt();
+            updater.join();
+            return nanos;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package CreationalDesignPattern;
 
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Singleton Design Pattern
  * Ensures a class has only one instance and provides a global point of access to it.
@@ -33,11 +36,90 @@ package CreationalDesignPattern;
  *
  */
 public class Singleton {
+    /**
+     * Destination for the lines produced by {@link Logger}.
+     * The default sink prints to stdout; {@link AsyncLogSink} moves the write off the caller's thread.
+     */
+    public interface LogSink {
+        // The line may be the logger's reused per-thread buffer: copy it if you keep it after returning
+        void write(CharSequence line);
+
+        // Push any buffered lines to the underlying stream
+        default void flush() {}
+    }
+
+    /**
+     * Sink that prints each line to a PrintStream (stdout by default).
+     * An ASCII line is copied into a per-thread byte buffer and written in one call, without building a
+     * String. ASCII bytes are the same in every default charset; any other line goes through println, which
+     * allocates a String so the stream's own charset encodes it.
+     */
+    public static class ConsoleSink implements LogSink {
+        private static final byte[] NEWLINE = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+        private static final int MAX_RETAINED = 16 * 1024;
+
+        private final PrintStream out;
+        private final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[256]);
+
+        public ConsoleSink(PrintStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(CharSequence line) {
+            int length = line.length();
+            int total = length + NEWLINE.length;
+            if (total > MAX_RETAINED) {
+                out.println(line);  // rare huge line: not worth keeping a buffer that size per thread
+                return;
+            }
+            byte[] bytes = scratch.get();
+            if (bytes.length < total) {
+                bytes = new byte[Math.min(Math.max(total, bytes.length * 2), MAX_RETAINED)];
+                scratch.set(bytes);
+            }
+            for (int i = 0; i < length; i++) {
+                char c = line.charAt(i);
+                if (c >= 0x80) {
+                    out.println(line);
+                    return;
+                }
+                bytes[i] = (byte) c;
+            }
+            System.arraycopy(NEWLINE, 0, bytes, length, NEWLINE.length);
+            out.write(bytes, 0, total);  // one call, like println: lines from different threads don't interleave
+        }
+
+        @Override
+        public void flush() {
+            out.flush();
+        }
+    }
+
+    public enum Level {
+        TRACE, DEBUG, INFO, WARN, ERROR;
+
+        // Precomputed so a log call never builds the label string
+        private final String label = "Log: [" + name() + "] ";
+    }
+
     // Singleton Class
-    public class Logger {
+    public static class Logger {
 
         // Step 1: Create a private static instance of the class
-        private Logger singleInstance = null;
+        private static Logger singleInstance = null;
+
+        // Where log lines go; stdout unless another sink is installed
+        private volatile LogSink sink = new ConsoleSink(System.out);
+
+        // Optional binary mode: pre-registered formats, raw argument bytes, decoded offline
+        private volatile BinaryLog binaryLog;
+
+        // Lowest enabled level, kept as an ordinal so isEnabled() is one compare
+        private volatile int threshold = Level.INFO.ordinal();
+
+        // Reused per thread so formatting never allocates a new builder or String
+        private static final ThreadLocal<LineBuffer> BUFFER = ThreadLocal.withInitial(LineBuffer::new);
 
         // Step 2: Make the constructor private (so no one can create an object from outside)
         private Logger() {
@@ -45,20 +127,212 @@ public class Singleton {
         }
 
         // Step 3: Provide a public static method to get the single instance
-        public Logger getInstance() {
+        public static Logger getInstance() {
             if (singleInstance == null) {
                 singleInstance = new Logger();  // Create the instance if it doesn't exist
             }
             return singleInstance;
         }
 
+        // Swap the backend, e.g. to an AsyncLogSink so log() never blocks on stdout
+        public void setSink(LogSink sink) {
+            this.sink = sink;
+        }
+
+        public LogSink getSink() {
+            return sink;
+        }
+
+        public void setBinaryLog(BinaryLog binaryLog) {
+            if (binaryLog != null) {
+                binaryLog.setLevel(Level.values()[threshold]);
+            }
+            this.binaryLog = binaryLog;
+        }
+
+        // The binary log for very high-rate events; see BinaryLog for the format-id API
+        public BinaryLog binary() {
+            BinaryLog log = binaryLog;
+            if (log == null) {
+                throw new IllegalStateException("Binary logging is not enabled; call setBinaryLog first");
+            }
+            return log;
+        }
+
+        public void setLevel(Level level) {
+            this.threshold = level.ordinal();
+            BinaryLog log = binaryLog;
+            if (log != null) {
+                log.setLevel(level);
+            }
+        }
+
+        // Cheap guard for callers that would otherwise compute arguments for a discarded line
+        public boolean isEnabled(Level level) {
+            return level.ordinal() >= threshold;
+        }
+
         // Example method
         public void log(String message) {
-            System.out.println("Log: " + message);
+            if (!isEnabled(Level.INFO)) {
+                return;
+            }
+            LineBuffer buffer = BUFFER.get();
+            StringBuilder line = buffer.begin().append("Log: ").append(message);
+            write(buffer, line);
+        }
+
+        /**
+         * Parameterized logging: each "{}" in the format is replaced by the next argument.
+         * Nothing is formatted (or allocated) when the level is disabled, and the primitive
+         * overloads append digits straight into the per-thread buffer without boxing.
+         * An enabled ASCII line reaches ConsoleSink without a String either; non-ASCII lines cost one.
+         */
+        public void log(Level level, String format, Object arg) {
+            if (!isEnabled(level)) {
+                return;
+            }
+            LineBuffer buffer = BUFFER.get();
+            StringBuilder line = buffer.begin().append(level.label);
+            int at = appendUntilPlaceholder(line, format, 0);
+            if (at >= 0) {
+                line.append(arg);
+            }
+            finish(buffer, line, format, at);
+        }
+
+        public void log(Level level, String format, Object arg1, Object arg2) {
+            if (!isEnabled(level)) {
+                return;
+            }
+            LineBuffer buffer = BUFFER.get();
+            StringBuilder line = buffer.begin().append(level.label);
+            int at = appendUntilPlaceholder(line, format, 0);
+            if (at >= 0) {
+                line.append(arg1);
+                at = appendUntilPlaceholder(line, format, at);
+                if (at >= 0) {
+                    line.append(arg2);
+                }
+            }
+            finish(buffer, line, format, at);
+        }
+
+        public void log(Level level, String format, long arg) {
+            if (!isEnabled(level)) {
+                return;
+            }
+            LineBuffer buffer = BUFFER.get();
+            StringBuilder line = buffer.begin().append(level.label);
+            int at = appendUntilPlaceholder(line, format, 0);
+            if (at >= 0) {
+                line.append(arg);
+            }
+            finish(buffer, line, format, at);
+        }
+
+        public void log(Level level, String format, long arg1, long arg2) {
+            if (!isEnabled(level)) {
+                return;
+            }
+            LineBuffer buffer = BUFFER.get();
+            StringBuilder line = buffer.begin().append(level.label);
+            int at = appendUntilPlaceholder(line, format, 0);
+            if (at >= 0) {
+                line.append(arg1);
+                at = appendUntilPlaceholder(line, format, at);
+                if (at >= 0) {
+                    line.append(arg2);
+                }
+            }
+            finish(buffer, line, format, at);
+        }
+
+        public void log(Level level, String format, Object arg1, long arg2) {
+            if (!isEnabled(level)) {
+                return;
+            }
+            LineBuffer buffer = BUFFER.get();
+            StringBuilder line = buffer.begin().append(level.label);
+            int at = appendUntilPlaceholder(line, format, 0);
+            if (at >= 0) {
+                line.append(arg1);
+                at = appendUntilPlaceholder(line, format, at);
+                if (at >= 0) {
+                    line.append(arg2);
+                }
+            }
+            finish(buffer, line, format, at);
+        }
+
+        public void log(Level level, String format, double arg) {
+            if (!isEnabled(level)) {
+                return;
+            }
+            LineBuffer buffer = BUFFER.get();
+            StringBuilder line = buffer.begin().append(level.label);
+            int at = appendUntilPlaceholder(line, format, 0);
+            if (at >= 0) {
+                line.append(arg);
+            }
+            finish(buffer, line, format, at);
+        }
+
+        // Copies format text up to the next "{}" and returns the index after it, or -1 once the format is used up
+        private static int appendUntilPlaceholder(StringBuilder line, String format, int from) {
+            int placeholder = format.indexOf("{}", from);
+            if (placeholder < 0) {
+                line.append(format, from, format.length());
+                return -1;
+            }
+            line.append(format, from, placeholder);
+            return placeholder + 2;
+        }
+
+        private void finish(LineBuffer buffer, StringBuilder line, String format, int at) {
+            if (at >= 0) {
+                line.append(format, at, format.length());
+            }
+            write(buffer, line);
+        }
+
+        private void write(LineBuffer buffer, StringBuilder line) {
+            try {
+                sink.write(line);
+            } finally {
+                buffer.end(line);
+            }
         }
 
     }
 
+    // Per-thread formatting buffer; a nested log call (e.g. from an argument's toString) gets a fresh builder
+    private static class LineBuffer {
+        private static final int MAX_RETAINED = 16 * 1024;
+
+        private StringBuilder text = new StringBuilder(256);
+        private boolean inUse;
+
+        StringBuilder begin() {
+            if (inUse) {
+                return new StringBuilder(256);
+            }
+            inUse = true;
+            text.setLength(0);
+            return text;
+        }
+
+        void end(StringBuilder line) {
+            if (line != text) {
+                return;
+            }
+            inUse = false;
+            if (text.capacity() > MAX_RETAINED) {
+                text = new StringBuilder(256);  // don't pin one huge line's buffer forever
+            }
+        }
+    }
+
     public class Main {
         public void main(String[] args) {
             Logger logger1 = Logger.getInstance();
@@ -67,6 +341,10 @@ public class Singleton {
             logger1.log("First message.");
             logger2.log("Second message.");
 
+            // Parameterized: formatted only when the level is enabled, no boxing for primitives
+            logger1.log(Level.WARN, "Order {} took {} ms", "A-17", 42L);
+            logger1.log(Level.DEBUG, "Cache size {}", 1024L);  // below INFO, discarded for free
+
             // Check if both logger1 and logger2 are the same object
             System.out.println(logger1 == logger2);  // Output: true
         }
@@ -86,6 +364,9 @@ public class Singleton {
  *
  * Here are the most common and recommended ways:
  *
+ * 📊 The performance notes below are measured by SingletonBenchmark
+ * (getInstance() throughput and latency at 1/4/16/64 threads, first-access cost, class-init cost, allocation).
+ *
  *
  *
  * */
@@ -102,14 +383,14 @@ public class Singleton {
      * Instance is created even if it is never used.
      *
      */
-    class EagerSingleton {
+    static class EagerSingleton {
         private static final EagerSingleton instance = new EagerSingleton();
 
         private EagerSingleton() {
             // Private constructor to prevent instantiation
         }
 
-        public EagerSingleton getInstance() {
+        public static EagerSingleton getInstance() {
             return instance;
         }
     }
@@ -123,13 +404,13 @@ public class Singleton {
      *
      * */
 
-    public class LazySingleton {
+    public static class LazySingleton {
 
-        private LazySingleton instance;
+        private static LazySingleton instance;
 
         private LazySingleton() {}
 
-        public LazySingleton getInstance() {
+        public static LazySingleton getInstance() {
             if (instance == null) {
                 instance = new LazySingleton();
             }
@@ -148,12 +429,12 @@ public class Singleton {
      * Performance overhead due to synchronization.
      *
      */
-    class ThreadSafeSingleton {
-        private ThreadSafeSingleton instance;
+    static class ThreadSafeSingleton {
+        private static ThreadSafeSingleton instance;
 
         private ThreadSafeSingleton() {}
 
-        public synchronized ThreadSafeSingleton getInstance() {
+        public static synchronized ThreadSafeSingleton getInstance() {
             if (instance == null) {
                 instance = new ThreadSafeSingleton();
             }
@@ -174,12 +455,12 @@ public class Singleton {
      * Slightly more complex code.
      *
      */
-    class DoubleCheckedLockingSingleton {
-        private volatile DoubleCheckedLockingSingleton instance;
+    static class DoubleCheckedLockingSingleton {
+        private static volatile DoubleCheckedLockingSingleton instance;
 
         private DoubleCheckedLockingSingleton() {}
 
-        public DoubleCheckedLockingSingleton getInstance() {
+        public static DoubleCheckedLockingSingleton getInstance() {
             if (instance == null) {
                 synchronized (DoubleCheckedLockingSingleton.class) {
                     if (instance == null) {
@@ -202,14 +483,14 @@ public class Singleton {
      * No synchronization overhead.
      *
      */
-    class BillPughSingleton {
+    static class BillPughSingleton {
         private BillPughSingleton() {}
 
-        private class SingletonHelper {
-            private final BillPughSingleton INSTANCE = new BillPughSingleton();
+        private static class SingletonHelper {
+            private static final BillPughSingleton INSTANCE = new BillPughSingleton();
         }
 
-        public BillPughSingleton getInstance() {
+        public static BillPughSingleton getInstance() {
             return SingletonHelper.INSTANCE;
         }
     }
@@ -0,0 +1,273 @@
+package CreationalDesignPattern;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ *
+ * ✅ Definition:
+ * Contention benchmark for the six variants in {@link Singleton}.
+ * Turns the Pros/Cons notes in the Singleton javadoc into numbers.
+ *
+ * 📊 What is measured:
+ * Metric	                    How
+ * -----------------------------------------------------------------
+ * Throughput	                getInstance() calls per second at 1, 4, 16 and 64 threads.
+ * Batch spread	                p50 / p99 of the per-call average over batches of 1,000 calls. Not per-call latency
+ *                              percentiles: nanoTime is too coarse to time a single call.
+ * Allocation	                Bytes per call from the per-thread allocation counter (same source as a GC profiler).
+ * First access	            Cost of the very first getInstance() in a fresh JVM.
+ * Class init	                Cost of loading + initializing the variant's class in a fresh JVM.
+ *
+ * ⚡ Cold numbers are taken in a forked JVM per variant, so no warm class or JIT state leaks between variants.
+ *
+ * ⚡ Every variant has its own batch loop calling getInstance() directly, so the call is inlined as it would be
+ * in real code. One shared Supplier call site would turn megamorphic after the first variants and measure
+ * interface dispatch instead. Each result goes into a Blackhole, so no read can be hoisted out of the loop.
+ * EagerSingleton and EnumSingleton read a static final, which the JIT folds into a constant as it would in
+ * real code; their rows show the Blackhole's own cost, the floor every other row includes.
+ *
+ * 📌 Run:
+ * java CreationalDesignPattern.SingletonBenchmark [warmupMillis] [measureMillis]
+ *
+ */
+public class SingletonBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+    private static final int BATCH = 1_000;
+
+    /**
+     * BATCH accesses of one variant. Each variant overrides this with its own loop, so the getInstance()
+     * call inside stays monomorphic; only the once-per-batch call to batch() is virtual.
+     */
+    private abstract static class Loop {
+        abstract void batch();
+    }
+
+    /**
+     * Consumes every getInstance() result, the way JMH's Blackhole does.
+     * The volatile read is an acquire barrier, so the JIT can't hoist the next iteration's getInstance()
+     * out of the loop; comparing against it keeps the result alive. Every row pays this same small cost.
+     */
+    private static final class Blackhole {
+        private volatile Object never = new Object();
+
+        void consume(Object instance) {
+            if (instance == never) {
+                throw new AssertionError("unreachable");
+            }
+        }
+    }
+
+    private static final Blackhole BLACKHOLE = new Blackhole();
+
+    // Variant name -> hot-path loop
+    private static final Map<String, Loop> VARIANTS = new LinkedHashMap<>();
+
+    static {
+        VARIANTS.put("EagerSingleton", new Loop() {
+            @Override
+            void batch() {
+                for (int i = 0; i < BATCH; i++) {
+                    BLACKHOLE.consume(Singleton.EagerSingleton.getInstance());
+                }
+            }
+        });
+        VARIANTS.put("LazySingleton", new Loop() {
+            @Override
+            void batch() {
+                for (int i = 0; i < BATCH; i++) {
+                    BLACKHOLE.consume(Singleton.LazySingleton.getInstance());
+                }
+            }
+        });
+        VARIANTS.put("ThreadSafeSingleton", new Loop() {
+            @Override
+            void batch() {
+                for (int i = 0; i < BATCH; i++) {
+                    BLACKHOLE.consume(Singleton.ThreadSafeSingleton.getInstance());
+                }
+            }
+        });
+        VARIANTS.put("DoubleCheckedLockingSingleton", new Loop() {
+            @Override
+            void batch() {
+                for (int i = 0; i < BATCH; i++) {
+                    BLACKHOLE.consume(Singleton.DoubleCheckedLockingSingleton.getInstance());
+                }
+            }
+        });
+        VARIANTS.put("BillPughSingleton", new Loop() {
+            @Override
+            void batch() {
+                for (int i = 0; i < BATCH; i++) {
+                    BLACKHOLE.consume(Singleton.BillPughSingleton.getInstance());
+                }
+            }
+        });
+        VARIANTS.put("EnumSingleton", new Loop() {
+            @Override
+            void batch() {
+                for (int i = 0; i < BATCH; i++) {
+                    BLACKHOLE.consume(Singleton.EnumSingleton.INSTANCE);
+                }
+            }
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        long warmupMillis = args.length > 0 ? Long.parseLong(args[0]) : 500;
+        long measureMillis = args.length > 1 ? Long.parseLong(args[1]) : 1_000;
+
+        System.out.println("== Cold start (forked JVM per variant) ==");
+        System.out.printf("%-32s %14s %16s%n", "variant", "classInit ns", "firstAccess ns");
+        for (String variant : VARIANTS.keySet()) {
+            System.out.println(fork(variant));
+        }
+
+        System.out.println();
+        System.out.println("== Steady state ==");
+        System.out.printf("%-32s %7s %16s %13s %13s %12s%n",
+                "variant", "threads", "ops/s", "batch p50 ns", "batch p99 ns", "bytes/op");
+        for (Map.Entry<String, Loop> entry : VARIANTS.entrySet()) {
+            for (int threads : THREAD_COUNTS) {
+                run(entry.getValue(), threads, warmupMillis);  // warmup, result discarded
+                Result result = run(entry.getValue(), threads, measureMillis);
+                System.out.printf("%-32s %7d %,16.0f %13.2f %13.2f %12.3f%n",
+                        entry.getKey(), threads, result.opsPerSecond, result.batchP50, result.batchP99,
+                        result.bytesPerOp);
+            }
+        }
+    }
+
+    private static class Result {
+        double opsPerSecond;
+        // Percentiles of per-batch averages, not of single calls
+        double batchP50;
+        double batchP99;
+        double bytesPerOp;
+    }
+
+    private static Result run(Loop loop, int threads, long millis) throws Exception {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        long[] ops = new long[threads];
+        long[] allocated = new long[threads];
+        List<double[]> samples = new ArrayList<>();
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            double[] batchNanos = new double[1 << 16];
+            samples.add(batchNanos);
+            workers[t] = new Thread(() -> {
+                try {
+                    barrier.await();
+                } catch (Exception e) {
+                    return;
+                }
+                long count = 0;
+                int sampled = 0;
+                long allocBefore = mx.getThreadAllocatedBytes(Thread.currentThread().getId());
+                long deadline = System.nanoTime() + millis * 1_000_000;
+                long now = System.nanoTime();
+                while (now < deadline) {
+                    loop.batch();
+                    long end = System.nanoTime();
+                    if (sampled < batchNanos.length) {
+                        batchNanos[sampled++] = (double) (end - now) / BATCH;
+                    }
+                    now = end;
+                    count += BATCH;
+                }
+                allocated[id] = mx.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocBefore;
+                ops[id] = count;
+                samples.set(id, Arrays.copyOf(batchNanos, sampled));
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long totalOps = Arrays.stream(ops).sum();
+        double[] all = samples.stream().flatMapToDouble(Arrays::stream).sorted().toArray();
+        Result result = new Result();
+        result.opsPerSecond = totalOps * 1_000.0 / millis;
+        result.batchP50 = all.length == 0 ? 0 : all[all.length / 2];
+        result.batchP99 = all.length == 0 ? 0 : all[(int) (all.length * 0.99)];
+        result.bytesPerOp = totalOps == 0 ? 0 : (double) Arrays.stream(allocated).sum() / totalOps;
+        return result;
+    }
+
+    // Starts a fresh JVM running ColdStart for one variant and returns its report line
+    private static String fork(String variant) throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                ColdStart.class.getName(), variant)
+                .redirectErrorStream(true)
+                .start();
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Constructors of some variants print; keep only the report line
+                if (line.startsWith(variant)) {
+                    output.append(line);
+                }
+            }
+        }
+        process.waitFor();
+        return output.toString();
+    }
+
+    /**
+     * Runs in the forked JVM: times class loading + static init, then the first getInstance().
+     * Nothing else in this JVM has touched the variant before.
+     */
+    public static class ColdStart {
+        public static void main(String[] args) throws Exception {
+            String variant = args[0];
+            String className = Singleton.class.getName() + "$" + variant;
+
+            long start = System.nanoTime();
+            Class.forName(className, true, ColdStart.class.getClassLoader());
+            long initialized = System.nanoTime();
+            Object instance = firstAccess(variant);
+            long accessed = System.nanoTime();
+
+            if (instance == null) {
+                throw new IllegalStateException(variant + " returned null");
+            }
+            System.out.printf("%-32s %14d %16d%n", variant, initialized - start, accessed - initialized);
+        }
+
+        // Direct calls (not the VARIANTS map) so no other variant gets initialized
+        private static Object firstAccess(String variant) {
+            switch (variant) {
+                case "EagerSingleton":
+                    return Singleton.EagerSingleton.getInstance();
+                case "LazySingleton":
+                    return Singleton.LazySingleton.getInstance();
+                case "ThreadSafeSingleton":
+                    return Singleton.ThreadSafeSingleton.getInstance();
+                case "DoubleCheckedLockingSingleton":
+                    return Singleton.DoubleCheckedLockingSingleton.getInstance();
+                case "BillPughSingleton":
+                    return Singleton.BillPughSingleton.getInstance();
+                case "EnumSingleton":
+                    return Singleton.EnumSingleton.INSTANCE;
+                default:
+                    throw new IllegalArgumentException("Unknown variant: " + variant);
+            }
+        }
+    }
+}
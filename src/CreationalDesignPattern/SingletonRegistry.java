@@ -0,0 +1,218 @@
+package CreationalDesignPattern;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ *
+ * ✅ Definition:
+ * A registry of lazily created singletons keyed by type.
+ * Instead of hand-rolling a holder class per singleton (see BillPughSingleton), you register a factory once
+ * and the registry creates the instance on first access.
+ *
+ * 🎯 Why Use It?
+ * Hundreds of singletons, none of them built until someone asks for it → faster startup.
+ *
+ * 🔨 How it works:
+ * Each type gets a Ref cached in a ClassValue (the JVM's per-class slot, no map lookup under a lock).
+ *
+ * The Ref does double-checked locking on itself: only the very first access of that type synchronizes,
+ * every later get() is a ClassValue read plus a volatile read.
+ *
+ * register() also returns the Ref; held in a static final field, ref.get() is just the volatile read,
+ * which is as cheap as a BillPughSingleton lookup.
+ *
+ * Threads racing on the first access wait for the winner, so the factory runs at most once.
+ *
+ * 📊 Startup metrics:
+ * getInitializations() lists which singletons were created, in order, by which thread and how long each took.
+ *
+ * 📌 Usage:
+ * SingletonRegistry registry = new SingletonRegistry();
+ * static final SingletonRegistry.Ref<Config> CONFIG = registry.register(Config.class, Config::load);
+ * Config config = CONFIG.get();                 // created here, once
+ * Config same = registry.get(Config.class);     // lookup by type also works
+ *
+ */
+public class SingletonRegistry {
+
+    private final Map<Class<?>, Supplier<?>> factories = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Initialization> initializations = new ConcurrentLinkedQueue<>();
+
+    private final ClassValue<Ref<?>> holders = new ClassValue<Ref<?>>() {
+        @Override
+        protected Ref<?> computeValue(Class<?> type) {
+            return new Ref<>(type);
+        }
+    };
+
+    // Returns the type's Ref; keep it in a static final field for the cheapest possible lookup
+    @SuppressWarnings("unchecked")
+    public <T> Ref<T> register(Class<T> type, Supplier<? extends T> factory) {
+        if (factories.putIfAbsent(type, factory) != null) {
+            throw new IllegalStateException("Singleton already registered: " + type.getName());
+        }
+        return (Ref<T>) holders.get(type);
+    }
+
+    public boolean isRegistered(Class<?> type) {
+        return factories.containsKey(type);
+    }
+
+    // True once the instance for this type has been created
+    public boolean isInitialized(Class<?> type) {
+        return holders.get(type).instance != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Class<T> type) {
+        return ((Ref<T>) holders.get(type)).get();
+    }
+
+    // Startup report: one entry per created singleton, in creation order
+    public List<Initialization> getInitializations() {
+        return new ArrayList<>(initializations);
+    }
+
+    // Per-type holder, the registry's equivalent of BillPughSingleton.SingletonHelper
+    public class Ref<T> {
+        private final Class<T> type;
+        private volatile T instance;
+        private boolean initializing;
+
+        private Ref(Class<T> type) {
+            this.type = type;
+        }
+
+        public T get() {
+            T value = instance;
+            if (value != null) {
+                return value;  // fast path, no lock
+            }
+            synchronized (this) {
+                if (instance == null) {
+                    instance = create();
+                }
+                return instance;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private T create() {
+            if (initializing) {
+                throw new IllegalStateException("Cyclic singleton dependency on " + type.getName());
+            }
+            Supplier<?> factory = factories.get(type);
+            if (factory == null) {
+                throw new IllegalStateException("No singleton registered for " + type.getName());
+            }
+            initializing = true;
+            try {
+                long start = System.nanoTime();
+                T created = (T) factory.get();
+                if (created == null) {
+                    throw new IllegalStateException("Factory for " + type.getName() + " returned null");
+                }
+                initializations.add(new Initialization(type, System.nanoTime() - start, Thread.currentThread().getName()));
+                return created;
+            } finally {
+                initializing = false;
+            }
+        }
+    }
+
+    // One row of the startup report
+    public static class Initialization {
+        private final Class<?> type;
+        private final long nanos;
+        private final String threadName;
+
+        Initialization(Class<?> type, long nanos, String threadName) {
+            this.type = type;
+            this.nanos = nanos;
+            this.threadName = threadName;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        @Override
+        public String toString() {
+            return type.getSimpleName() + " initialized in " + nanos / 1_000 + " µs on " + threadName;
+        }
+    }
+
+    public static class Main {
+        static class Database {
+            Database() {
+                System.out.println("Database connected!");
+            }
+        }
+
+        static class Cache {
+            Cache() {
+                System.out.println("Cache warmed!");
+            }
+        }
+
+        public static void main(String[] args) throws InterruptedException {
+            SingletonRegistry registry = new SingletonRegistry();
+            SingletonRegistry.Ref<Database> database = registry.register(Database.class, Database::new);
+            registry.register(Cache.class, Cache::new);
+
+            // Eight threads race on the first access, the constructor still runs once
+            Thread[] threads = new Thread[8];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = new Thread(() -> registry.get(Database.class));
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            System.out.println(registry.get(Database.class) == registry.get(Database.class));  // Output: true
+            System.out.println("Cache created? " + registry.isInitialized(Cache.class));       // Output: false
+            registry.getInitializations().forEach(System.out::println);
+
+            // Steady-state lookup versus a hand-written Bill Pugh holder
+            System.out.println("registry.get(type) ns/op: " + nanosPerOp(() -> registry.get(Database.class)));
+            System.out.println("ref.get()          ns/op: " + nanosPerOp(database::get));
+            System.out.println("bill pugh          ns/op: " + nanosPerOp(Singleton.BillPughSingleton::getInstance));
+        }
+
+        private static double nanosPerOp(Supplier<?> lookup) {
+            int ops = 50_000_000;
+            lookups(lookup, ops);  // warmup
+            long start = System.nanoTime();
+            long hits = lookups(lookup, ops);
+            long elapsed = System.nanoTime() - start;
+            if (hits != ops) {
+                throw new IllegalStateException("lookup returned null");
+            }
+            return (double) elapsed / ops;
+        }
+
+        private static long lookups(Supplier<?> lookup, int ops) {
+            long hits = 0;
+            for (int i = 0; i < ops; i++) {
+                if (lookup.get() != null) {
+                    hits++;
+                }
+            }
+            return hits;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package CreationalDesignPattern;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ *
+ * ✅ Definition:
+ * Deep clone by serialization, with the writer and the reader running at the same time through a small
+ * bounded pipe instead of a byte array holding the whole serialized graph.
+ *
+ * 🎯 Why?
+ * DeepCloneUtility.deepCloneBySerialization keeps the complete serialized form in a ByteArrayOutputStream and
+ * then copies it again with toByteArray(): peak heap is the original + two serialized copies + the clone.
+ * Here the serialized form never exists in full: peak extra memory is the pipe, whatever the graph size.
+ *
+ * 🔨 How it works:
+ * A writer thread runs ObjectOutputStream into the pipe; the calling thread runs ObjectInputStream out of it.
+ *
+ * The pipe is a fixed set of chunks passed back and forth through two queues (full / free), so the writer
+ * blocks when the reader falls behind instead of growing a buffer.
+ *
+ * Every calling thread keeps its pipe and reuses it for the next clone.
+ *
+ * Failures on either side stop the other side and are thrown as DeepCopier.CopyException with the cause
+ * (NotSerializableException, ClassNotFoundException, ...), never returned as null.
+ *
+ * ⚡ Caution:
+ * Object streams keep a handle table with one entry per object, on both sides; that part still grows with
+ * the number of objects (not their size).
+ *
+ * 📌 Usage:
+ * Student copy = StreamingDeepClone.deepClone(student);
+ *
+ */
+public class StreamingDeepClone {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int CHUNKS = 4;
+
+    private static final ExecutorService WRITERS = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "deep-clone-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // One pipe per calling thread, reused across clones
+    private static final ThreadLocal<Pipe> PIPES = ThreadLocal.withInitial(Pipe::new);
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Serializable> T deepClone(T object) {
+        if (object == null) {
+            return null;
+        }
+        Pipe pipe = PIPES.get();
+        if (pipe.inUse) {
+            pipe = new Pipe();  // nested clone (e.g. from a readObject hook): don't share the busy pipe
+        }
+        pipe.open();
+        Pipe writing = pipe;
+        Future<?> writer = WRITERS.submit(() -> {
+            try (ObjectOutputStream out = new ObjectOutputStream(writing.output())) {
+                out.writeObject(object);
+            } catch (Throwable e) {
+                writing.fail(e);
+            }
+            return null;
+        });
+
+        boolean writerDone = false;
+        try {
+            Object copy;
+            try {
+                copy = new ObjectInputStream(pipe.input()).readObject();
+            } catch (Throwable e) {
+                // Any reader failure, including a readObject hook's RuntimeException or Error: stop the writer,
+                // or it waits for a free chunk forever, holding the graph
+                pipe.cancel();
+                writerDone = awaitWriter(writer);
+                // A writer failure (e.g. NotSerializableException) is the real cause of whatever the reader saw
+                Throwable cause = pipe.writerFailure != null && !(pipe.writerFailure instanceof Cancelled)
+                        ? pipe.writerFailure : e;
+                throw new DeepCopier.CopyException("Deep clone of " + object.getClass().getName() + " failed", cause);
+            }
+            pipe.cancel();  // the reader has the whole object; never leave the writer waiting for a chunk
+            writerDone = awaitWriter(writer);
+            if (pipe.writerFailure != null && !(pipe.writerFailure instanceof Cancelled)) {
+                throw new DeepCopier.CopyException("Deep clone of " + object.getClass().getName() + " failed",
+                        pipe.writerFailure);
+            }
+            return (T) copy;
+        } finally {
+            if (writerDone) {
+                pipe.release();
+            } else if (pipe == PIPES.get()) {
+                PIPES.remove();  // the writer may still be using it: the next clone gets a fresh pipe
+            }
+        }
+    }
+
+    // True once the writer has finished; false if the caller was interrupted while it still runs
+    private static boolean awaitWriter(Future<?> writer) {
+        try {
+            writer.get();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw new DeepCopier.CopyException("Deep clone writer failed", e.getCause());
+        }
+    }
+
+    // Thrown in the writer when the reader has given up
+    private static final class Cancelled extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        Cancelled() {
+            super("Reader cancelled the clone");
+        }
+    }
+
+    /**
+     * CHUNKS byte arrays circulating between the writer (fills them) and the reader (drains them).
+     * Chunk.END in the full queue marks the end of the stream.
+     */
+    private static final class Pipe {
+        private final byte[][] chunks = new byte[CHUNKS][CHUNK_SIZE];
+        private final BlockingQueue<Chunk> free = new ArrayBlockingQueue<>(CHUNKS);
+        private final BlockingQueue<Chunk> full = new ArrayBlockingQueue<>(CHUNKS + 1);
+        private volatile boolean cancelled;
+        private volatile Throwable writerFailure;
+        private boolean inUse;
+
+        void open() {
+            inUse = true;
+            cancelled = false;
+            writerFailure = null;
+            free.clear();
+            full.clear();
+            for (byte[] bytes : chunks) {
+                free.add(new Chunk(bytes));
+            }
+        }
+
+        void release() {
+            inUse = false;
+        }
+
+        // Reader gave up: unblock and stop the writer
+        void cancel() {
+            cancelled = true;
+            free.offer(new Chunk(null));  // wakes a writer waiting for a free chunk
+        }
+
+        void fail(Throwable e) {
+            writerFailure = e;
+            full.offer(Chunk.END);
+        }
+
+        OutputStream output() {
+            return new OutputStream() {
+                private Chunk current;
+
+                @Override
+                public void write(int b) throws IOException {
+                    if (current == null || current.length == CHUNK_SIZE) {
+                        nextChunk();
+                    }
+                    current.bytes[current.length++] = (byte) b;
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    while (length > 0) {
+                        if (current == null || current.length == CHUNK_SIZE) {
+                            nextChunk();
+                        }
+                        int n = Math.min(length, CHUNK_SIZE - current.length);
+                        System.arraycopy(bytes, offset, current.bytes, current.length, n);
+                        current.length += n;
+                        offset += n;
+                        length -= n;
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flushChunk();
+                    full.offer(Chunk.END);
+                }
+
+                // Hands the filled chunk to the reader and waits for a free one
+                // Once cancelled, every later write throws too (ObjectOutputStream writes a marker after a failure)
+                private void nextChunk() throws IOException {
+                    flushChunk();
+                    if (cancelled) {
+                        throw new Cancelled();
+                    }
+                    Chunk next = take(free);
+                    if (next.bytes == null || cancelled) {
+                        throw new Cancelled();
+                    }
+                    next.length = 0;
+                    current = next;
+                }
+
+                private void flushChunk() {
+                    if (current != null && current.length > 0) {
+                        full.add(current);
+                    }
+                    current = null;
+                }
+            };
+        }
+
+        InputStream input() {
+            return new InputStream() {
+                private Chunk current;
+                private int position;
+
+                @Override
+                public int read() throws IOException {
+                    return fill() ? current.bytes[position++] & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    if (length == 0) {
+                        return 0;
+                    }
+                    if (!fill()) {
+                        return -1;
+                    }
+                    int n = Math.min(length, current.length - position);
+                    System.arraycopy(current.bytes, position, bytes, offset, n);
+                    position += n;
+                    return n;
+                }
+
+                // Makes sure current has unread bytes; false at the end of the stream
+                private boolean fill() throws IOException {
+                    if (current != null && position < current.length) {
+                        return true;
+                    }
+                    if (current != null && current != Chunk.END) {
+                        free.add(current);  // give the drained chunk back to the writer
+                    }
+                    current = take(full);
+                    position = 0;
+                    if (current == Chunk.END) {
+                        full.offer(Chunk.END);  // stay at end of stream for later reads
+                        if (writerFailure != null) {
+                            throw new IOException("Writer failed", writerFailure);
+                        }
+                        return false;
+                    }
+                    return true;
+                }
+            };
+        }
+
+        private static Chunk take(BlockingQueue<Chunk> queue) throws IOException {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while cloning");
+            }
+        }
+    }
+
+    private static final class Chunk {
+        static final Chunk END = new Chunk(null);
+
+        final byte[] bytes;
+        int length;
+
+        Chunk(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Peak heap while cloning a large graph: ByteArrayOutputStream round trip versus the streaming pipe.
+     * Run with e.g. "1024 -Xmx6g" for a 1 GB graph (the default 256 MB fits a 2 GB heap).
+     */
+    public static class Benchmark {
+
+        static class Block implements Serializable {
+            private static final long serialVersionUID = 1L;
+            final byte[] payload;
+
+            Block(int size, int seed) {
+                payload = new byte[size];
+                payload[0] = (byte) seed;
+            }
+        }
+
+        public static void main(String[] args) {
+            int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+            ArrayList<Block> original = new ArrayList<>();
+            for (int i = 0; i < megabytes * 16; i++) {  // 64 KB blocks
+                original.add(new Block(64 * 1024, i));
+            }
+
+            long baseline = settledHeap();
+            System.out.printf("graph: %,d MB, heap in use: %,d MB%n", megabytes, baseline >> 20);
+
+            resetPeaks();
+            Object buffered = DeepCopy.DeepCloneUtility.deepCloneBySerialization(original);
+            long bufferedPeak = peakHeap();
+            buffered = null;
+            settledHeap();
+
+            resetPeaks();
+            List<Block> streamed = deepClone(original);
+            long streamedPeak = peakHeap();
+
+            System.out.printf("ByteArrayOutputStream round trip : peak %,6d MB  (%.1fx graph)%n",
+                    bufferedPeak >> 20, (double) (bufferedPeak - baseline) / (megabytes << 20));
+            System.out.printf("streaming pipe                   : peak %,6d MB  (%.1fx graph)%n",
+                    streamedPeak >> 20, (double) (streamedPeak - baseline) / (megabytes << 20));
+            System.out.println("blocks cloned: " + streamed.size());
+        }
+
+        private static long settledHeap() {
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+            }
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+
+        private static void resetPeaks() {
+            settledHeap();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    pool.resetPeakUsage();
+                }
+            }
+        }
+
+        // Sum of per-pool peaks: an upper bound, since pools need not peak at the same moment
+        private static long peakHeap() {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            return peak;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package CreationalDesignPattern;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ *
+ * ✅ Definition:
+ * One logical singleton whose mutable state is split into per-core cells.
+ * Writes go to the calling thread's cell; reads merge all cells into one snapshot.
+ *
+ * 🎯 Why?
+ * The variants in {@link Singleton} assume the instance is read-only. A singleton that holds shared counters
+ * or accumulators turns every update into a fight over one lock (or one cache line).
+ *
+ * This is java.util.concurrent.atomic.LongAdder's idea, generalized to any state you can merge.
+ *
+ * 🔨 How it works:
+ * Cells are created lazily by the thread that first writes to them, so each lands in that thread's TLAB.
+ *
+ * Each cell has a padded try-lock; a writer that finds its cell busy moves to another cell instead of waiting.
+ *
+ * snapshot() locks each cell briefly and merges it into a fresh state object.
+ *
+ * ✅ When to Use:
+ * Many threads write, few threads read (metrics, statistics, rate counters).
+ *
+ * ❌ Not for:
+ * State that needs a globally consistent read at a single instant; a snapshot is per-cell consistent only.
+ *
+ * 📌 Usage:
+ * StripedSingleton<Stats> stats = new StripedSingleton<>(Stats::new, Stats::mergeInto);
+ * stats.update(s -> s.record(latency));
+ * Stats total = stats.snapshot();
+ *
+ */
+public class StripedSingleton<S> {
+
+    private static final VarHandle BUSY;
+
+    static {
+        try {
+            BUSY = MethodHandles.lookup().findVarHandle(CellLock.class, "busy", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Per-thread cell index; rehashed when the thread collides with another writer
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(
+            () -> new int[] {mix((int) Thread.currentThread().getId())});
+
+    private final Supplier<S> stateFactory;
+    private final BiConsumer<S, S> mergeInto;
+    private final AtomicReferenceArray<Cell<S>> cells;
+    private final int mask;
+
+    /**
+     * @param stateFactory creates an empty state (used for every cell and for each snapshot)
+     * @param mergeInto    (target, source): adds source into target
+     */
+    public StripedSingleton(Supplier<S> stateFactory, BiConsumer<S, S> mergeInto) {
+        this.stateFactory = stateFactory;
+        this.mergeInto = mergeInto;
+        int stripes = Math.max(2, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+        this.cells = new AtomicReferenceArray<>(stripes);
+        this.mask = stripes - 1;
+    }
+
+    // Applies op to one cell's state while holding that cell exclusively
+    public void update(Consumer<S> op) {
+        int[] probe = PROBE.get();
+        int h = probe[0];
+        for (int attempt = 0; ; attempt++) {
+            Cell<S> cell = cellAt(h & mask);
+            if (cell.tryLock()) {
+                try {
+                    op.accept(cell.state);
+                } finally {
+                    cell.unlock();
+                }
+                probe[0] = h;
+                return;
+            }
+            // Busy: another thread shares this cell, move somewhere else
+            h = mix(h + 0x9E3779B9);
+            if (attempt > mask) {
+                // Every cell was busy: holders are probably descheduled, let them run
+                Thread.yield();
+            }
+        }
+    }
+
+    // Merges every cell into a new state object
+    public S snapshot() {
+        S total = stateFactory.get();
+        for (int i = 0; i < cells.length(); i++) {
+            Cell<S> cell = cells.get(i);
+            if (cell == null) {
+                continue;
+            }
+            cell.lock();
+            try {
+                mergeInto.accept(total, cell.state);
+            } finally {
+                cell.unlock();
+            }
+        }
+        return total;
+    }
+
+    // Replaces every cell's state with an empty one; updates racing with reset() may be lost
+    public void reset() {
+        for (int i = 0; i < cells.length(); i++) {
+            cells.set(i, null);
+        }
+    }
+
+    public int stripes() {
+        return cells.length();
+    }
+
+    private Cell<S> cellAt(int index) {
+        Cell<S> cell = cells.get(index);
+        if (cell == null) {
+            cells.compareAndSet(index, null, new Cell<>(stateFactory.get()));
+            cell = cells.get(index);
+        }
+        return cell;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    // Padding on both sides of the lock word keeps neighbouring cells off the same cache line
+    abstract static class CellPadLeft {
+        long p00, p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    abstract static class CellLock extends CellPadLeft {
+        volatile int busy;
+
+        boolean tryLock() {
+            return busy == 0 && BUSY.compareAndSet(this, 0, 1);
+        }
+
+        void lock() {
+            while (!tryLock()) {
+                Thread.yield();
+            }
+        }
+
+        void unlock() {
+            BUSY.setRelease(this, 0);
+        }
+    }
+
+    abstract static class CellPadRight extends CellLock {
+        long p10, p11, p12, p13, p14, p15, p16, p17;
+    }
+
+    static final class Cell<S> extends CellPadRight {
+        final S state;
+
+        Cell(S state) {
+            this.state = state;
+        }
+    }
+
+    /**
+     * Example mergeable state: count, sum and max of recorded values.
+     */
+    public static class Stats {
+        long count;
+        long sum;
+        long max = Long.MIN_VALUE;
+
+        public void record(long value) {
+            count++;
+            sum += value;
+            max = Math.max(max, value);
+        }
+
+        public static void mergeInto(Stats target, Stats source) {
+            target.count += source.count;
+            target.sum += source.sum;
+            target.max = Math.max(target.max, source.max);
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count + ", sum=" + sum + ", max=" + max;
+        }
+    }
+
+    /**
+     * 32+ threads updating shared Stats: a DoubleCheckedLockingSingleton-style instance guarded by
+     * synchronized, versus a StripedSingleton.
+     */
+    public static class Benchmark {
+        private static final int UPDATES_PER_THREAD = 1_000_000;
+
+        // Shared-state singleton the way Singleton.DoubleCheckedLockingSingleton builds it
+        static class SharedStats {
+            private static volatile SharedStats instance;
+            private final Stats stats = new Stats();
+
+            static SharedStats getInstance() {
+                if (instance == null) {
+                    synchronized (SharedStats.class) {
+                        if (instance == null) {
+                            instance = new SharedStats();
+                        }
+                    }
+                }
+                return instance;
+            }
+
+            synchronized void record(long value) {
+                stats.record(value);
+            }
+
+            synchronized Stats snapshot() {
+                Stats copy = new Stats();
+                Stats.mergeInto(copy, stats);
+                return copy;
+            }
+        }
+
+        public static void main(String[] args) throws InterruptedException {
+            int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+            StripedSingleton<Stats> striped = new StripedSingleton<>(Stats::new, Stats::mergeInto);
+
+            for (int round = 0; round < 2; round++) {  // first round warms up the JIT
+                long sharedNanos = run(threads, i -> SharedStats.getInstance().record(i));
+                long stripedNanos = run(threads, i -> striped.update(s -> s.record(i)));
+                if (round == 1) {
+                    long total = (long) threads * UPDATES_PER_THREAD;
+                    System.out.printf("threads=%d stripes=%d%n", threads, striped.stripes());
+                    System.out.printf("DCL + synchronized : %6.1f ns/update  %s%n",
+                            (double) sharedNanos / total, SharedStats.getInstance().snapshot());
+                    System.out.printf("StripedSingleton   : %6.1f ns/update  %s%n",
+                            (double) stripedNanos / total, striped.snapshot());
+                }
+            }
+        }
+
+        interface Update {
+            void apply(long value);
+        }
+
+        private static long run(int threads, Update update) throws InterruptedException {
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                workers[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                        update.apply(i);
+                    }
+                });
+                workers[t].start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            return System.nanoTime() - begin;
+        }
+    }
+}
@@ -1,5 +1,19 @@
 package StructuralDesignPattern;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
 /**
  *
  *
@@ -103,16 +117,35 @@ public class Adapter {
      */
     public interface MusicPlayer {
         void play(String audioType, String fileName);
+
+        // A whole group of files of one format; adapters can do their per-format work once
+        default void playAll(String audioType, List<String> fileNames) {
+            for (String fileName : fileNames) {
+                play(audioType, fileName);
+            }
+        }
     }
 
-    public class VLCPlayer {
+    public static class VLCPlayer {
         public void playVLC(String fileName) {
             System.out.println("Playing VLC file: " + fileName);
         }
+
+        // Stand-in for real decoding: reads every byte of the frame
+        public long decodeVLCFrame(ByteBuffer frame) {
+            long sum = 0;
+            while (frame.remaining() >= Long.BYTES) {
+                sum += frame.getLong();
+            }
+            while (frame.hasRemaining()) {
+                sum += frame.get();
+            }
+            return sum;
+        }
     }
 
     // Adapter Class
-    public class MediaAdapter implements MusicPlayer {
+    public static class MediaAdapter implements MusicPlayer, MediaStreamPipeline.FrameDecoder {
         VLCPlayer vlcPlayer = new VLCPlayer();
 
         @Override
@@ -121,23 +154,225 @@ public class Adapter {
                 vlcPlayer.playVLC(fileName);  // Adapting VLCPlayer to MusicPlayer
             }
         }
+
+        @Override
+        public void playAll(String audioType, List<String> fileNames) {
+            if (audioType.equalsIgnoreCase("vlc")) {  // checked once for the group
+                for (String fileName : fileNames) {
+                    vlcPlayer.playVLC(fileName);
+                }
+            }
+        }
+
+        @Override
+        public long decodeFrame(ByteBuffer frame) {
+            return vlcPlayer.decodeVLCFrame(frame);  // Adapting VLCPlayer to the streaming pipeline
+        }
+    }
+
+    public static class Mp3Player implements MusicPlayer, MediaStreamPipeline.FrameDecoder {
+        @Override
+        public void play(String audioType, String fileName) {
+            System.out.println("Playing MP3 file: " + fileName);
+        }
+
+        // Stand-in for real decoding: reads every byte of the frame
+        @Override
+        public long decodeFrame(ByteBuffer frame) {
+            long mix = 0;
+            while (frame.remaining() >= Long.BYTES) {
+                mix = mix * 31 + frame.getLong();
+            }
+            while (frame.hasRemaining()) {
+                mix = mix * 31 + frame.get();
+            }
+            return mix;
+        }
+    }
+
+    public static class Track {
+        final String audioType;
+        final String fileName;
+
+        public Track(String audioType, String fileName) {
+            this.audioType = audioType;
+            this.fileName = fileName;
+        }
+    }
+
+    /**
+     * Plug-in formats: implementations listed in META-INF/services/StructuralDesignPattern.Adapter$FormatPlugin
+     * are found with ServiceLoader the first time an unknown format is played.
+     */
+    public interface FormatPlugin {
+        Set<String> formats();
+
+        MusicPlayer create(String format);
+    }
+
+    /**
+     * 🚀 Codec Registry
+     *
+     * One player per format, created on first use and reused for every later file of that format.
+     * Formats are normalized once ("VLC", ".vlc" → "vlc"); the spellings already seen are remembered,
+     * so a lookup is a single map read with no string work. Players always receive the normalized format.
+     *
+     * Every cached codec remembers the factory it came from and is checked against the registered one,
+     * so a register() racing with lookups never leaves a player from the replaced factory in use.
+     * A plug-in that fails to load is reported on System.err and skipped; the others still load.
+     */
+    public static class CodecRegistry {
+        private final ConcurrentHashMap<String, Supplier<? extends MusicPlayer>> factories = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Codec> codecs = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Codec> bySpelling = new ConcurrentHashMap<>();
+        private volatile boolean pluginsLoaded;
+
+        public CodecRegistry() {
+            // Seeded directly: calling the overridable register() here would let a subclass see a half-built registry
+            factories.put("mp3", Mp3Player::new);
+            factories.put("vlc", MediaAdapter::new);
+        }
+
+        // Adds or replaces a format; the player is created the first time the format is played
+        public void register(String format, Supplier<? extends MusicPlayer> factory) {
+            String key = normalize(format);
+            factories.put(key, factory);
+            codecs.remove(key);
+            bySpelling.clear();
+        }
+
+        // The player for a format, or null if no codec or plug-in handles it
+        public MusicPlayer playerFor(String audioType) {
+            Codec codec = codecFor(audioType);
+            return codec == null ? null : codec.player;
+        }
+
+        Codec codecFor(String audioType) {
+            Codec codec = bySpelling.get(audioType);
+            if (codec != null && codec.factory == factories.get(codec.format)) {
+                return codec;  // still built from the registered factory
+            }
+            String key = normalize(audioType);
+            if (!factories.containsKey(key)) {
+                loadPlugins();
+            }
+            while (true) {
+                Supplier<? extends MusicPlayer> factory = factories.get(key);
+                if (factory == null) {
+                    return null;
+                }
+                codec = codecs.get(key);
+                if (codec == null) {
+                    // Plug-in code runs outside any map operation, so it may use the registry itself.
+                    // Two threads may both create a player for a new format; the first one stored wins.
+                    MusicPlayer player = factory.get();
+                    if (player == null) {
+                        throw new IllegalStateException("Audio format '" + key + "' created no player");
+                    }
+                    Codec created = new Codec(key, factory, player);
+                    codec = codecs.putIfAbsent(key, created);
+                    if (codec == null) {
+                        codec = created;
+                    }
+                }
+                if (codec.factory == factories.get(key)) {
+                    break;
+                }
+                // A register() ran meanwhile and this codec came from the old factory: drop it and retry
+                codecs.remove(key, codec);
+            }
+            if (bySpelling.size() < 1_024) {  // bounded: formats come from file names
+                bySpelling.put(audioType, codec);
+            }
+            return codec;
+        }
+
+        public static String normalize(String audioType) {
+            String format = audioType.trim();
+            if (format.startsWith(".")) {
+                format = format.substring(1);
+            }
+            return format.toLowerCase(Locale.ROOT);
+        }
+
+        private void loadPlugins() {
+            if (pluginsLoaded) {
+                return;
+            }
+            synchronized (this) {
+                if (pluginsLoaded) {
+                    return;
+                }
+                Iterator<FormatPlugin> plugins = ServiceLoader.load(FormatPlugin.class).iterator();
+                while (true) {
+                    try {
+                        if (!plugins.hasNext()) {
+                            break;
+                        }
+                        FormatPlugin plugin = plugins.next();
+                        for (String format : plugin.formats()) {
+                            factories.putIfAbsent(normalize(format), () -> plugin.create(format));
+                        }
+                    } catch (ServiceConfigurationError e) {
+                        // A broken plug-in is skipped, once; the loader moves on to the next provider
+                        System.err.println("⚠ Skipping audio format plug-in: " + e.getMessage());
+                    }
+                }
+                pluginsLoaded = true;  // also after errors, so unknown formats don't rescan every time
+            }
+        }
+    }
+
+    // A created player, the normalized format it was created for, and the factory that created it
+    static final class Codec {
+        final String format;
+        final Supplier<? extends MusicPlayer> factory;
+        final MusicPlayer player;
+
+        Codec(String format, Supplier<? extends MusicPlayer> factory, MusicPlayer player) {
+            this.format = format;
+            this.factory = factory;
+            this.player = player;
+        }
     }
 
-    public class AudioPlayer implements MusicPlayer {
+    public static class AudioPlayer implements MusicPlayer {
 
-        MediaAdapter adapter;
+        private final CodecRegistry codecs;
+
+        public AudioPlayer() {
+            this(new CodecRegistry());
+        }
+
+        public AudioPlayer(CodecRegistry codecs) {
+            this.codecs = codecs;
+        }
 
         @Override
         public void play(String audioType, String fileName) {
-            if (audioType.equalsIgnoreCase("mp3")) {
-                System.out.println("Playing MP3 file: " + fileName);
-            } else if (audioType.equalsIgnoreCase("vlc")) {
-                adapter = new MediaAdapter();
-                adapter.play(audioType, fileName);  // Delegate to adapter
+            Codec codec = codecs.codecFor(audioType);  // Adapter reused, not created per call
+            if (codec != null) {
+                codec.player.play(codec.format, fileName);
             } else {
                 System.out.println("Unsupported format: " + audioType);
             }
         }
+
+        // Groups the playlist by format (in order of first appearance); each player gets its whole group
+        public void playAll(List<Track> tracks) {
+            Map<Codec, List<String>> groups = new LinkedHashMap<>();
+            for (Track track : tracks) {
+                Codec codec = codecs.codecFor(track.audioType);
+                if (codec == null) {
+                    System.out.println("Unsupported format: " + track.audioType);
+                    continue;
+                }
+                groups.computeIfAbsent(codec, c -> new ArrayList<>()).add(track.fileName);
+            }
+            for (Map.Entry<Codec, List<String>> group : groups.entrySet()) {
+                group.getKey().player.playAll(group.getKey().format, group.getValue());
+            }
+        }
     }
     public class Main {
         public void main(String[] args) {
@@ -147,6 +382,10 @@ public class Adapter {
             player.play("mp3", "song.mp3");  // Plays directly
             player.play("vlc", "video.vlc"); // Uses adapter
             player.play("avi", "movie.avi"); // Unsupported
+
+            // Playlist: one call per format group
+            player.playAll(Arrays.asList(
+                    new Track("mp3", "a.mp3"), new Track("VLC", "b.vlc"), new Track("mp3", "c.mp3")));
         }
     }
 
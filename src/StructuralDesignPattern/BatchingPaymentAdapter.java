@@ -0,0 +1,372 @@
+package StructuralDesignPattern;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *
+ * ✅ Definition:
+ * An asynchronous Adapter.PaymentProcessor: payAsync(amount) returns a CompletableFuture right away, and
+ * payments are sent to the gateway in batches.
+ *
+ * 🎯 Why?
+ * Adapter.PayPalAdapter makes one remote call per payment and blocks the caller for the whole round trip.
+ * With a 5 ms gateway, one thread does at most 200 payments a second.
+ *
+ * A batch of 256 payments costs about the same round trip as one payment.
+ *
+ * 🔨 How it works:
+ * Callers put payments on a bounded queue (a full queue blocks them: back-pressure).
+ *
+ * One dispatcher thread takes the first waiting payment, then collects more until the batch is full
+ * (maxBatchSize) or the time window has passed since that first payment (a few ms), whichever comes first.
+ *
+ * Each batch is one gateway call on a worker thread. At most maxInFlight batches are at the gateway at once;
+ * while they are all busy the dispatcher waits, and the next batch grows in the meantime.
+ *
+ * When a batch returns, each payment's future completes with its transaction id, or exceptionally with the
+ * gateway's error (the whole batch fails together).
+ *
+ * ⚡ Caution:
+ * A lone payment waits up to one time window before it is sent; that is the price of batching.
+ *
+ * pay(amount) still works for the synchronous interface, but a single caller waiting on each payment gets
+ * batches of one. The gain comes from many payments in flight at once.
+ *
+ * close() sends every payment queued before it; a payment started after close() fails at once with
+ * IllegalStateException, so no future is ever left without an outcome.
+ *
+ * 📌 Usage:
+ * try (BatchingPaymentAdapter payments = new BatchingPaymentAdapter(gateway, 256, 2, 8)) {
+ *     payments.payAsync(500.0).thenAccept(id -> System.out.println("paid, transaction " + id));
+ * }
+ *
+ */
+public class BatchingPaymentAdapter implements Adapter.PaymentProcessor, AutoCloseable {
+
+    /**
+     * The downstream API: one round trip pays a whole batch.
+     */
+    public interface BatchGateway {
+        // Pays amounts[0, count); returns one transaction id per payment, in the same order
+        long[] makePayments(double[] amounts, int count) throws Exception;
+    }
+
+    private static final Pending CLOSE = new Pending(0);
+
+    private final BatchGateway gateway;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final BlockingQueue<Pending> queue;
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+    private volatile boolean closed;
+    // Callers inside payAsync(); close() waits for them before queueing CLOSE
+    private final AtomicLong producers = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong payments = new AtomicLong();
+
+    /**
+     * @param maxBatchSize  payments per gateway call, at most
+     * @param windowMillis  longest wait for a batch to fill up, counted from its first payment
+     * @param maxInFlight   gateway calls running at the same time, at most
+     */
+    public BatchingPaymentAdapter(BatchGateway gateway, int maxBatchSize, long windowMillis, int maxInFlight) {
+        if (maxBatchSize < 1 || windowMillis < 0 || maxInFlight < 1) {
+            throw new IllegalArgumentException("maxBatchSize and maxInFlight must be positive, windowMillis >= 0");
+        }
+        this.gateway = gateway;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.queue = new ArrayBlockingQueue<>(maxBatchSize * (maxInFlight + 1));
+        this.workers = Executors.newFixedThreadPool(maxInFlight, task -> {
+            Thread thread = new Thread(task, "payment-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "payment-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    // Completes with the gateway's transaction id; blocks only while the queue is full
+    public CompletableFuture<Long> payAsync(double amount) {
+        Pending payment = new Pending(amount);
+        producers.incrementAndGet();
+        try {
+            // closed is read after announcing this producer, so close() either waits for us or we see closed
+            if (closed) {
+                payment.future.completeExceptionally(new IllegalStateException("Payment adapter is closed"));
+                return payment.future;
+            }
+            queue.put(payment);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            payment.future.completeExceptionally(e);
+        } finally {
+            producers.decrementAndGet();
+        }
+        return payment.future;
+    }
+
+    @Override
+    public void pay(double amount) {
+        payAsync(amount).join();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getPaymentCount() {
+        return payments.get();
+    }
+
+    public double getAverageBatchSize() {
+        long count = batches.get();
+        return count == 0 ? 0 : (double) payments.get() / count;
+    }
+
+    // Sends everything already queued, waits for the gateway to answer, then stops the threads.
+    // Payments started after close() fail right away.
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        while (producers.get() > 0 && dispatcher.isAlive()) {
+            LockSupport.parkNanos(50_000);  // let callers already inside payAsync() queue their payment
+        }
+        try {
+            queue.put(CLOSE);
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+    }
+
+    private void dispatch() {
+        Pending[] batch = new Pending[maxBatchSize];
+        try {
+            while (true) {
+                Pending first = queue.take();
+                if (first == CLOSE) {
+                    break;
+                }
+                batch[0] = first;
+                int size = 1;
+                boolean closing = false;
+                long deadline = System.nanoTime() + windowNanos;
+                while (size < maxBatchSize) {
+                    // Take whatever is already waiting without a timed poll for each payment
+                    Pending next = queue.poll();
+                    if (next == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0 || (next = queue.poll(remaining, TimeUnit.NANOSECONDS)) == null) {
+                            break;
+                        }
+                    }
+                    if (next == CLOSE) {
+                        closing = true;
+                        break;
+                    }
+                    batch[size++] = next;
+                }
+                inFlight.acquire();  // all gateway calls busy: wait, and let the next batch fill up meanwhile
+                Pending[] sending = Arrays.copyOf(batch, size);
+                workers.execute(() -> send(sending));
+                if (closing) {
+                    break;
+                }
+            }
+            inFlight.acquire(maxInFlight);  // wait for the last batches to come back
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Nothing may be left waiting forever
+        Pending left;
+        while ((left = queue.poll()) != null) {
+            left.future.completeExceptionally(new IllegalStateException("Payment adapter is closed"));
+        }
+    }
+
+    private void send(Pending[] batch) {
+        try {
+            double[] amounts = new double[batch.length];
+            for (int i = 0; i < batch.length; i++) {
+                amounts[i] = batch[i].amount;
+            }
+            long[] ids;
+            try {
+                ids = gateway.makePayments(amounts, amounts.length);
+                if (ids == null || ids.length < batch.length) {
+                    throw new IllegalStateException("Gateway returned " + (ids == null ? 0 : ids.length)
+                            + " transaction ids for " + batch.length + " payments");
+                }
+            } catch (Throwable e) {
+                for (Pending payment : batch) {
+                    payment.future.completeExceptionally(e);
+                }
+                return;
+            }
+            batches.incrementAndGet();
+            payments.addAndGet(batch.length);
+            for (int i = 0; i < batch.length; i++) {
+                batch[i].future.complete(ids[i]);
+            }
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private static final class Pending {
+        final double amount;
+        final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        Pending(double amount) {
+            this.amount = amount;
+        }
+    }
+
+    /**
+     * Local stand-in for a remote payment gateway: every call, single or batch, takes one round trip.
+     * Also usable one payment at a time, the way Adapter.PayPalAPI is.
+     */
+    public static class SimulatedGateway implements BatchGateway {
+        private final long latencyNanos;
+        private final AtomicLong nextId = new AtomicLong(1);
+        private final AtomicLong calls = new AtomicLong();
+
+        public SimulatedGateway(long latencyMicros) {
+            this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        }
+
+        public long makePayment(double paymentAmount) {
+            roundTrip();
+            return nextId.getAndIncrement();
+        }
+
+        @Override
+        public long[] makePayments(double[] amounts, int count) {
+            roundTrip();
+            long first = nextId.getAndAdd(count);
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = first + i;
+            }
+            return ids;
+        }
+
+        public long getCalls() {
+            return calls.get();
+        }
+
+        private void roundTrip() {
+            calls.incrementAndGet();
+            long end = System.nanoTime() + latencyNanos;
+            for (long left = latencyNanos; left > 0; left = end - System.nanoTime()) {
+                LockSupport.parkNanos(left);
+            }
+        }
+    }
+
+    public static class Main {
+        public static void main(String[] args) {
+            try (BatchingPaymentAdapter payments =
+                         new BatchingPaymentAdapter(new SimulatedGateway(5_000), 256, 2, 4)) {
+                CompletableFuture<?>[] all = new CompletableFuture<?>[10];
+                for (int i = 0; i < all.length; i++) {
+                    double amount = 100.0 * (i + 1);
+                    all[i] = payments.payAsync(amount)
+                            .thenAccept(id -> System.out.println("Payment of $" + amount + " made, transaction " + id));
+                }
+                CompletableFuture.allOf(all).join();
+                System.out.println("batches sent: " + payments.getBatchCount());  // 1 or 2, not 10
+            }
+        }
+    }
+
+    /**
+     * Payments per second at 1, 2, 5 and 10 ms gateway latency: the synchronous adapter (one call per payment)
+     * from a pool of caller threads, versus the same callers using payAsync on the batching adapter.
+     */
+    public static class Benchmark {
+
+        public static void main(String[] args) throws InterruptedException {
+            int callers = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+            int perCaller = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+            System.out.printf("callers=%d, window=2 ms, batch<=256, in-flight<=4%n", callers);
+            System.out.printf("%8s %18s %18s %12s%n", "latency", "sync (pay/s)", "batched (pay/s)", "avg batch");
+            for (int latencyMillis : new int[] {1, 2, 5, 10}) {
+                SimulatedGateway gateway = new SimulatedGateway(latencyMillis * 1_000L);
+
+                // Synchronous adapter: fewer payments, it is slow enough to measure that way
+                Adapter.PaymentProcessor sync = gateway::makePayment;
+                int syncPerCaller = 2_000 / latencyMillis / callers + 1;
+                long syncNanos = run(callers, () -> {
+                    for (int i = 0; i < syncPerCaller; i++) {
+                        sync.pay(10.0);
+                    }
+                });
+                double syncRate = rate((long) callers * syncPerCaller, syncNanos);
+
+                double batchedRate;
+                double averageBatch;
+                try (BatchingPaymentAdapter batching = new BatchingPaymentAdapter(gateway, 256, 2, 4)) {
+                    long batchedNanos = run(callers, () -> {
+                        CompletableFuture<?>[] paid = new CompletableFuture<?>[perCaller];
+                        for (int i = 0; i < perCaller; i++) {
+                            paid[i] = batching.payAsync(10.0);
+                        }
+                        CompletableFuture.allOf(paid).join();
+                    });
+                    batchedRate = rate((long) callers * perCaller, batchedNanos);
+                    averageBatch = batching.getAverageBatchSize();
+                }
+                System.out.printf("%6d ms %18.0f %18.0f %12.1f%n", latencyMillis, syncRate, batchedRate, averageBatch);
+            }
+        }
+
+        private static double rate(long payments, long nanos) {
+            return payments * 1e9 / nanos;
+        }
+
+        private static long run(int callers, Runnable work) throws InterruptedException {
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] threads = new Thread[callers];
+            for (int t = 0; t < callers; t++) {
+                threads[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    work.run();
+                });
+                threads[t].start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            return System.nanoTime() - begin;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package StructuralDesignPattern;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ *
+ * ✅ Definition:
+ * The read path behind Adapter.MusicPlayer: a media file is memory-mapped, cut into fixed-size frames, and
+ * each frame is handed to the format's decoder (MediaAdapter → VLCPlayer, or Mp3Player).
+ *
+ * 🎯 Why?
+ * MusicPlayer.play(audioType, fileName) only printed. Reading a multi-GB file into memory is not an option,
+ * and reading it on the decoding thread makes the decoder wait for every page fault.
+ *
+ * 🔨 How it works:
+ * The file is mapped one window (64 MB) at a time, never as a whole.
+ *
+ * A reader thread copies frames from the mapped window into one of two frame buffers while the calling
+ * thread decodes the other one (double buffering). The two buffers circulate through a free queue and a
+ * full queue, so the reader blocks when the decoder falls behind instead of reading ahead without limit.
+ *
+ * Memory is two buffers of framesPerBuffer frames, whatever the file size.
+ *
+ * ⚡ Caution:
+ * A decoder must not keep the ByteBuffer it receives: it is reused for the next frames.
+ *
+ * Mapped windows are released by the garbage collector (Java 11 has no public unmap). They are clean page
+ * cache pages, which the OS can drop at any time, but they do show up in the process's virtual size.
+ *
+ * 📌 Usage:
+ * Stats stats = MediaStreamPipeline.stream(Paths.get("movie.vlc"), new Adapter.MediaAdapter(), 4096, 64);
+ * new StreamingAudioPlayer().play("vlc", "movie.vlc");
+ *
+ */
+public class MediaStreamPipeline {
+
+    public static final int DEFAULT_FRAME_SIZE = 4096;
+    public static final int DEFAULT_FRAMES_PER_BUFFER = 64;
+
+    private static final long MAP_WINDOW = 64L << 20;
+
+    private static final ExecutorService READERS = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "media-reader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A player that can decode raw frames, adapted from its own API (VLCPlayer.decodeVLCFrame, ...).
+     */
+    public interface FrameDecoder {
+        // Decodes frame[position, limit); returns a value folded into Stats.checksum
+        long decodeFrame(ByteBuffer frame);
+    }
+
+    public static Stats stream(Path file, FrameDecoder decoder) throws IOException {
+        return stream(file, decoder, DEFAULT_FRAME_SIZE, DEFAULT_FRAMES_PER_BUFFER);
+    }
+
+    // Decodes the whole file frame by frame on the calling thread; the last frame may be shorter
+    public static Stats stream(Path file, FrameDecoder decoder, int frameSize, int framesPerBuffer) throws IOException {
+        if (frameSize < 1 || framesPerBuffer < 1) {
+            throw new IllegalArgumentException("frameSize and framesPerBuffer must be positive");
+        }
+        long start = System.nanoTime();
+        Stats stats = new Stats();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Pipe pipe = new Pipe(frameSize, framesPerBuffer);
+            Future<?> reader = READERS.submit(() -> {
+                try {
+                    pipe.produce(channel);
+                } catch (Throwable e) {
+                    pipe.fail(e);
+                }
+            });
+            try {
+                pipe.consume(decoder, stats, start);
+            } finally {
+                pipe.cancel();
+                awaitReader(reader);
+            }
+            if (pipe.readerFailure != null && !(pipe.readerFailure instanceof Cancelled)) {
+                throw new IOException("Reading " + file + " failed", pipe.readerFailure);
+            }
+        }
+        stats.elapsedNanos = System.nanoTime() - start;
+        stats.bufferBytes = 2L * frameSize * framesPerBuffer;
+        return stats;
+    }
+
+    private static void awaitReader(Future<?> reader) throws IOException {
+        try {
+            reader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while streaming");
+        } catch (ExecutionException e) {
+            throw new IOException("Media reader failed", e.getCause());
+        }
+    }
+
+    public static class Stats {
+        long frames;
+        long bytes;
+        long checksum;
+        long timeToFirstFrameNanos = -1;
+        long elapsedNanos;
+        long bufferBytes;
+
+        public long getFrames() {
+            return frames;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+
+        public double getTimeToFirstFrameMillis() {
+            return timeToFirstFrameNanos / 1e6;
+        }
+
+        public double getFramesPerSecond() {
+            return frames * 1e9 / elapsedNanos;
+        }
+
+        public double getMegabytesPerSecond() {
+            return bytes * 1e9 / elapsedNanos / (1 << 20);
+        }
+
+        // Frame buffers in use, the pipeline's whole working memory
+        public long getBufferBytes() {
+            return bufferBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d frames, %,.0f fps, %,.0f MB/s, first frame after %.2f ms, buffers %,d KB",
+                    frames, getFramesPerSecond(), getMegabytesPerSecond(), getTimeToFirstFrameMillis(),
+                    bufferBytes >> 10);
+        }
+    }
+
+    // Thrown in the reader when the decoding side has stopped
+    private static final class Cancelled extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        Cancelled() {
+            super("Decoder stopped the stream");
+        }
+    }
+
+    /**
+     * Two frame buffers passed between the reader (fills them) and the decoder (drains them).
+     * Buffer.END in the full queue marks the end of the file.
+     */
+    private static final class Pipe {
+        private final int frameSize;
+        private final BlockingQueue<Buffer> free = new ArrayBlockingQueue<>(3);
+        private final BlockingQueue<Buffer> full = new ArrayBlockingQueue<>(3);
+        private volatile boolean cancelled;
+        private volatile Throwable readerFailure;
+
+        Pipe(int frameSize, int framesPerBuffer) {
+            this.frameSize = frameSize;
+            free.add(new Buffer(frameSize * framesPerBuffer));
+            free.add(new Buffer(frameSize * framesPerBuffer));
+        }
+
+        void produce(FileChannel channel) throws IOException {
+            long size = channel.size();
+            long window = Math.max(frameSize, MAP_WINDOW / frameSize * frameSize);  // frames never straddle windows
+            Buffer buffer = null;
+            for (long offset = 0; offset < size; offset += window) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                        Math.min(window, size - offset));
+                while (mapped.hasRemaining()) {
+                    if (buffer == null) {
+                        buffer = take(free);
+                        if (buffer.bytes == null || cancelled) {
+                            throw new Cancelled();
+                        }
+                        buffer.bytes.clear();
+                    }
+                    int n = Math.min(mapped.remaining(), buffer.bytes.remaining());
+                    ByteBuffer chunk = mapped.slice();
+                    chunk.limit(n);
+                    buffer.bytes.put(chunk);  // page faults happen here, on the reader thread
+                    mapped.position(mapped.position() + n);
+                    if (!buffer.bytes.hasRemaining()) {
+                        buffer.bytes.flip();
+                        full.add(buffer);
+                        buffer = null;
+                    }
+                }
+            }
+            if (buffer != null) {
+                buffer.bytes.flip();
+                full.add(buffer);
+            }
+            full.add(Buffer.END);
+        }
+
+        void consume(FrameDecoder decoder, Stats stats, long start) throws IOException {
+            while (true) {
+                Buffer buffer = take(full);
+                if (buffer == Buffer.END) {
+                    if (readerFailure != null) {
+                        throw new IOException("Media reader failed", readerFailure);
+                    }
+                    return;
+                }
+                ByteBuffer bytes = buffer.bytes;
+                int end = bytes.limit();
+                for (int frame = 0; frame < end; frame += frameSize) {
+                    bytes.limit(Math.min(end, frame + frameSize)).position(frame);
+                    stats.checksum += decoder.decodeFrame(bytes);
+                    if (stats.timeToFirstFrameNanos < 0) {
+                        stats.timeToFirstFrameNanos = System.nanoTime() - start;
+                    }
+                    stats.frames++;
+                }
+                stats.bytes += end;
+                free.add(buffer);  // hand it back to the reader
+            }
+        }
+
+        // Decoding side stopped: unblock and stop the reader
+        void cancel() {
+            cancelled = true;
+            free.offer(new Buffer(0));
+        }
+
+        void fail(Throwable e) {
+            readerFailure = e;
+            full.offer(Buffer.END);
+        }
+
+        private static Buffer take(BlockingQueue<Buffer> queue) throws IOException {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while streaming");
+            }
+        }
+    }
+
+    private static final class Buffer {
+        static final Buffer END = new Buffer(0);
+
+        final ByteBuffer bytes;
+
+        Buffer(int capacity) {
+            this.bytes = capacity == 0 ? null : ByteBuffer.allocateDirect(capacity);
+        }
+    }
+
+    /**
+     * An Adapter.MusicPlayer that actually reads the file: formats whose player is a FrameDecoder are
+     * streamed through the pipeline, the others are played the old way.
+     */
+    public static class StreamingAudioPlayer implements Adapter.MusicPlayer {
+        private final Adapter.CodecRegistry codecs;
+        private volatile Stats lastStats;
+
+        public StreamingAudioPlayer() {
+            this(new Adapter.CodecRegistry());
+        }
+
+        public StreamingAudioPlayer(Adapter.CodecRegistry codecs) {
+            this.codecs = codecs;
+        }
+
+        @Override
+        public void play(String audioType, String fileName) {
+            Adapter.MusicPlayer player = codecs.playerFor(audioType);
+            if (player == null) {
+                System.out.println("Unsupported format: " + audioType);
+            } else if (player instanceof FrameDecoder) {
+                try {
+                    lastStats = stream(Paths.get(fileName), (FrameDecoder) player);
+                    System.out.println("Streamed " + fileName + ": " + lastStats);
+                } catch (IOException e) {
+                    System.out.println("Cannot play " + fileName + ": " + e.getMessage());
+                }
+            } else {
+                player.play(audioType, fileName);
+            }
+        }
+
+        public Stats getLastStats() {
+            return lastStats;
+        }
+    }
+
+    /**
+     * Streams a generated multi-GB file through both decoders and reports fps, time to first frame and the
+     * heap used. Arguments: size in MB (default 2048), frame size (default 4096), optional existing file.
+     */
+    public static class Benchmark {
+
+        public static void main(String[] args) throws IOException {
+            long megabytes = args.length > 0 ? Long.parseLong(args[0]) : 2_048;
+            int frameSize = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_FRAME_SIZE;
+            Path file = args.length > 2 ? Paths.get(args[2]) : generate(megabytes);
+            try {
+                System.out.printf("file: %s, %,d MB, frame %,d bytes%n", file, Files.size(file) >> 20, frameSize);
+                FrameDecoder[] decoders = {new Adapter.MediaAdapter(), new Adapter.Mp3Player()};
+                String[] names = {"VLC (MediaAdapter)", "MP3 (Mp3Player)  "};
+                for (int i = 0; i < decoders.length; i++) {
+                    resetPeaks();
+                    Stats stats = stream(file, decoders[i], frameSize, DEFAULT_FRAMES_PER_BUFFER);
+                    System.out.printf("%s: %s, peak heap %,d MB%n", names[i], stats, peakHeap() >> 20);
+                }
+            } finally {
+                if (args.length <= 2) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        private static Path generate(long megabytes) throws IOException {
+            Path file = Files.createTempFile("media-stream", ".vlc");
+            ByteBuffer block = ByteBuffer.allocateDirect(1 << 20);
+            for (int i = 0; block.hasRemaining(); i++) {
+                block.put((byte) (i * 31));
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                for (long i = 0; i < megabytes; i++) {
+                    block.clear();
+                    while (block.hasRemaining()) {
+                        channel.write(block);
+                    }
+                }
+            }
+            return file;
+        }
+
+        private static void resetPeaks() {
+            System.gc();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    pool.resetPeakUsage();
+                }
+            }
+        }
+
+        private static long peakHeap() {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            return peak;
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package StructuralDesignPattern;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ *
+ * ✅ Definition:
+ * Runs a blocking Adapter.PaymentProcessor (PayPalAdapter and friends) with one virtual thread per pay()
+ * call. At most maxConcurrent calls reach the gateway at once, and every call has a timeout.
+ *
+ * 🎯 Why?
+ * A gateway adapter spends nearly all its time waiting on the network. A platform thread per waiting call
+ * costs ~1 MB of stack and a kernel thread, so pools stay small and payments queue up behind them.
+ * A blocked virtual thread costs a few hundred bytes and gives its carrier thread back to other work.
+ *
+ * 🔨 How it works:
+ * Executors.newVirtualThreadPerTaskExecutor() is looked up by reflection, so this class still compiles and
+ * runs on Java 11. Without virtual threads, virtualThreads(...) falls back to a fixed platform pool
+ * (getMode() says which one you got).
+ *
+ * Each call first takes a permit from the gateway's Semaphore (waiting is cheap on a virtual thread), then
+ * calls the wrapped pay(). The permit wait counts against the call's timeout.
+ *
+ * On timeout the call's thread is interrupted and the future fails in one of two ways:
+ * - TimeoutException: the gateway was never called (no thread or permit in time); safe to retry.
+ * - OutcomeUnknownException: pay() had already started. An interrupt cannot stop a gateway that ignores it,
+ *   so the payment may still go through; check with the gateway before retrying, or it may be charged twice.
+ *
+ * A permit is held for as long as the gateway call really runs, even past the caller's timeout, so calls
+ * that ignore the interrupt still count against maxConcurrent (see getCallsInProgress()).
+ *
+ * 📌 Pinning:
+ * A virtual thread that blocks inside synchronized (JDK 21-23) or a native frame pins its carrier thread:
+ * the carrier blocks too, and with enough pinned calls the whole carrier pool stalls.
+ *
+ * Two checks report it (see onPinned, getPinnedCount, getPinningWarnings):
+ * - at construction, a synchronized pay() method on the wrapped processor is flagged;
+ * - at run time, JFR's jdk.VirtualThreadPinned events are streamed (JDK 21+, when the jdk.jfr module is
+ *   there), which also catches synchronized blocks deeper in the gateway code.
+ *
+ * JFR events are JVM-wide, so one stream per JVM is shared by every adapter, and each adapter counts
+ * every pin in the JVM, not only its own.
+ *
+ * For stack traces of every pin, also run with -Djdk.tracePinnedThreads=short (JDK 21-23).
+ *
+ * ⚡ Caution:
+ * So far this class has only been run on JDK 17, i.e. the platform-pool fallback. The virtual-thread path
+ * and the JFR pinning stream are written against the JDK 21 APIs (through reflection) but have not been
+ * executed yet.
+ *
+ * 📌 Usage:
+ * try (VirtualThreadPaymentAdapter payments =
+ *          VirtualThreadPaymentAdapter.virtualThreads(new PayPalAdapter(), 1_000, Duration.ofSeconds(2))) {
+ *     payments.payAsync(500.0).join();
+ * }
+ *
+ */
+public class VirtualThreadPaymentAdapter implements Adapter.PaymentProcessor, AutoCloseable {
+
+    public enum Mode { VIRTUAL_THREADS, PLATFORM_POOL }
+
+    // Largest platform pool the virtual-thread fallback creates
+    private static final int MAX_FALLBACK_THREADS = 256;
+
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+
+    private final Adapter.PaymentProcessor gateway;
+    private final ExecutorService executor;
+    private final Mode mode;
+    private final Semaphore permits;
+    private final long timeoutNanos;
+
+    private final List<String> pinningWarnings = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong pinnedCount = new AtomicLong();
+    private volatile Consumer<String> pinnedListener = report -> System.err.println("⚠ " + report);
+    private final AutoCloseable pinningStream;
+
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong unknownOutcomes = new AtomicLong();
+    private final int maxConcurrent;
+
+    private VirtualThreadPaymentAdapter(Adapter.PaymentProcessor gateway, ExecutorService executor, Mode mode,
+                                        int maxConcurrent, Duration timeout) {
+        if (maxConcurrent < 1 || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("maxConcurrent and timeout must be positive");
+        }
+        this.gateway = gateway;
+        this.executor = executor;
+        this.mode = mode;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        this.timeoutNanos = timeout.toNanos();
+        if (mode == Mode.VIRTUAL_THREADS) {
+            checkSynchronizedPay(gateway);
+            this.pinningStream = PinnedEventStream.subscribe(this::reportPinned);
+        } else {
+            this.pinningStream = null;
+        }
+    }
+
+    /**
+     * One virtual thread per call, at most maxConcurrent calls at the gateway.
+     * Without virtual threads (before Java 21): a platform pool of min(maxConcurrent, 256) threads.
+     */
+    public static VirtualThreadPaymentAdapter virtualThreads(Adapter.PaymentProcessor gateway, int maxConcurrent,
+                                                             Duration timeout) {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual != null) {
+            return new VirtualThreadPaymentAdapter(gateway, virtual, Mode.VIRTUAL_THREADS, maxConcurrent, timeout);
+        }
+        return platformPool(gateway, Math.min(maxConcurrent, MAX_FALLBACK_THREADS), timeout);
+    }
+
+    // The classic alternative: a fixed pool of platform threads, one blocked thread per call in progress
+    public static VirtualThreadPaymentAdapter platformPool(Adapter.PaymentProcessor gateway, int threads,
+                                                           Duration timeout) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "payment-call");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new VirtualThreadPaymentAdapter(gateway, pool, Mode.PLATFORM_POOL, threads, timeout);
+    }
+
+    public static boolean isVirtualThreadsAvailable() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * Fails with TimeoutException if the gateway was not called within the timeout (waiting for a thread or
+     * permit), or with OutcomeUnknownException if the gateway call started but did not return in time.
+     */
+    public CompletableFuture<Void> payAsync(double amount) {
+        Call call = new Call(amount, System.nanoTime() + timeoutNanos);
+        call.task = executor.submit(() -> run(call));
+        CompletableFuture.delayedExecutor(timeoutNanos, TimeUnit.NANOSECONDS).execute(() -> {
+            if (expire(call)) {
+                call.task.cancel(true);  // interrupts the call; a gateway that ignores it keeps its permit
+            }
+        });
+        return call.result;
+    }
+
+    @Override
+    public void pay(double amount) {
+        try {
+            payAsync(amount).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void run(Call call) {
+        if (call.state.get() != Call.WAITING) {
+            return;  // timed out while waiting for a thread
+        }
+        boolean acquired = false;
+        try {
+            acquired = permits.tryAcquire(call.deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                expire(call);  // no one to interrupt: this thread is the call
+                return;
+            }
+            // Claim the call before touching the gateway, so a timeout can tell "never sent" from "maybe sent"
+            if (!call.state.compareAndSet(Call.WAITING, Call.STARTED)) {
+                return;
+            }
+            gateway.pay(call.amount);
+            call.result.complete(null);
+        } catch (Throwable e) {  // includes the InterruptedException of a timed-out call
+            call.result.completeExceptionally(e);
+        } finally {
+            if (acquired) {
+                permits.release();  // only now has the gateway call really ended
+            }
+        }
+    }
+
+    // Fails a call that has not finished; returns false if it already had a result
+    private boolean expire(Call call) {
+        if (call.state.compareAndSet(Call.WAITING, Call.EXPIRED)) {
+            call.result.completeExceptionally(new TimeoutException("Payment not sent: no gateway thread "
+                    + "or permit within the timeout"));
+        } else if (!call.result.completeExceptionally(new OutcomeUnknownException(call.amount))) {
+            return false;
+        } else {
+            unknownOutcomes.incrementAndGet();
+        }
+        timeouts.incrementAndGet();
+        return true;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    // Timeouts after the gateway call had started: payments that may or may not have gone through
+    public long getUnknownOutcomeCount() {
+        return unknownOutcomes.get();
+    }
+
+    // Gateway calls holding a permit right now, including ones whose caller already timed out
+    public int getCallsInProgress() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    // Receives one line per pinning problem found (default: printed to System.err)
+    public void onPinned(Consumer<String> listener) {
+        this.pinnedListener = listener;
+    }
+
+    // Pinned-carrier events seen at run time (JFR reports them JVM-wide, not only for this gateway)
+    public long getPinnedCount() {
+        return pinnedCount.get();
+    }
+
+    // Everything reported so far, static checks included
+    public List<String> getPinningWarnings() {
+        synchronized (pinningWarnings) {
+            return new ArrayList<>(pinningWarnings);
+        }
+    }
+
+    // Waits for calls in progress, then stops the threads
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        if (pinningStream != null) {
+            try {
+                pinningStream.close();
+            } catch (Exception ignored) {
+                // the JFR stream is only diagnostics
+            }
+        }
+    }
+
+    private void checkSynchronizedPay(Adapter.PaymentProcessor gateway) {
+        if (Runtime.version().feature() >= 24) {
+            return;  // JEP 491: synchronized no longer pins virtual threads
+        }
+        try {
+            Method pay = gateway.getClass().getMethod("pay", double.class);
+            if (Modifier.isSynchronized(pay.getModifiers())) {
+                String report = gateway.getClass().getName() + ".pay is synchronized: each call pins its "
+                        + "carrier thread while the gateway blocks; use a ReentrantLock instead";
+                pinningWarnings.add(report);
+                pinnedListener.accept(report);
+            }
+        } catch (NoSuchMethodException ignored) {
+            // not reachable: pay(double) is the interface method
+        }
+    }
+
+    private void reportPinned(String event) {
+        pinnedCount.incrementAndGet();
+        String report = "virtual thread pinned: " + event;
+        if (pinningWarnings.size() < 100) {
+            pinningWarnings.add(report);
+        }
+        pinnedListener.accept(report);
+    }
+
+    private static Method findVirtualThreadExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;  // before Java 21
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;  // e.g. preview feature not enabled on Java 19/20
+        }
+    }
+
+    /**
+     * Thrown (as the future's cause) when a payment timed out after the gateway call had started.
+     * The gateway may still complete it: reconcile before retrying, or the customer may be charged twice.
+     */
+    public static class OutcomeUnknownException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final double amount;
+
+        public OutcomeUnknownException(double amount) {
+            super("Payment of " + amount + " timed out after the gateway call started; it may still go through");
+            this.amount = amount;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+    }
+
+    // One payAsync() call: WAITING until run() claims it (STARTED) or the timeout does (EXPIRED)
+    private static final class Call {
+        static final int WAITING = 0, STARTED = 1, EXPIRED = 2;
+
+        final double amount;
+        final long deadline;
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        volatile Future<?> task;
+
+        Call(double amount, long deadline) {
+            this.amount = amount;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * Streams JFR jdk.VirtualThreadPinned events, through reflection because jdk.jfr.consumer.RecordingStream
+     * is not in Java 11. Pinning events are JVM-wide, so there is one stream per JVM, shared by all adapters;
+     * it is started by the first subscriber and closed when the last one leaves.
+     */
+    private static final class PinnedEventStream {
+        private static final List<Consumer<String>> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+        private static AutoCloseable stream;  // guarded by PinnedEventStream.class
+
+        // Returns the handle that unsubscribes, or null when JFR streaming is not available
+        static synchronized AutoCloseable subscribe(Consumer<String> onEvent) {
+            if (stream == null) {
+                stream = start(event -> {
+                    for (Consumer<String> subscriber : SUBSCRIBERS) {
+                        subscriber.accept(event);
+                    }
+                });
+                if (stream == null) {
+                    return null;
+                }
+            }
+            SUBSCRIBERS.add(onEvent);
+            return () -> unsubscribe(onEvent);
+        }
+
+        private static synchronized void unsubscribe(Consumer<String> onEvent) throws Exception {
+            if (SUBSCRIBERS.remove(onEvent) && SUBSCRIBERS.isEmpty() && stream != null) {
+                AutoCloseable last = stream;
+                stream = null;
+                last.close();
+            }
+        }
+
+        private static AutoCloseable start(Consumer<String> onEvent) {
+            try {
+                Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+                Object stream = streamClass.getConstructor().newInstance();
+                Object settings = streamClass.getMethod("enable", String.class)
+                        .invoke(stream, "jdk.VirtualThreadPinned");
+                settings.getClass().getMethod("withThreshold", Duration.class)
+                        .invoke(settings, Duration.ofMillis(1));
+                Consumer<Object> handler = event -> onEvent.accept(describe(event));
+                streamClass.getMethod("onEvent", String.class, Consumer.class)
+                        .invoke(stream, "jdk.VirtualThreadPinned", handler);
+                streamClass.getMethod("startAsync").invoke(stream);
+                return (AutoCloseable) stream;
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                return null;  // no jdk.jfr module, or JFR disabled: the static check still runs
+            }
+        }
+
+        // "12.3 ms in com.example.Gateway.pay(...)": duration and the top application frame
+        private static String describe(Object event) {
+            try {
+                Duration duration = (Duration) event.getClass().getMethod("getDuration").invoke(event);
+                Object stackTrace = event.getClass().getMethod("getStackTrace").invoke(event);
+                String where = "";
+                if (stackTrace != null) {
+                    List<?> frames = (List<?>) stackTrace.getClass().getMethod("getFrames").invoke(stackTrace);
+                    for (Object frame : frames) {
+                        Object method = frame.getClass().getMethod("getMethod").invoke(frame);
+                        Object type = method.getClass().getMethod("getType").invoke(method);
+                        String typeName = (String) type.getClass().getMethod("getName").invoke(type);
+                        if (!typeName.startsWith("java.") && !typeName.startsWith("jdk.")) {
+                            where = " in " + typeName + "." + method.getClass().getMethod("getName").invoke(method);
+                            break;
+                        }
+                    }
+                }
+                return String.format("%.1f ms%s", duration.toNanos() / 1e6, where);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return String.valueOf(event);
+            }
+        }
+    }
+
+    public static class Main {
+        public static void main(String[] args) {
+            BatchingPaymentAdapter.SimulatedGateway payPal = new BatchingPaymentAdapter.SimulatedGateway(5_000);
+            try (VirtualThreadPaymentAdapter payments =
+                         VirtualThreadPaymentAdapter.virtualThreads(payPal::makePayment, 100, Duration.ofSeconds(1))) {
+                payments.pay(500.0);
+                System.out.println("Payment of $500.0 made on " + payments.getMode());
+            }
+        }
+    }
+
+    /**
+     * 100k concurrent payments against a simulated 10 ms gateway: a fixed platform pool versus one virtual
+     * thread per payment (bounded by the gateway semaphore). Then a synchronized gateway, to show pinning.
+     */
+    public static class LoadTest {
+
+        // A legacy adapter that serializes access to its connection with synchronized
+        static class SynchronizedGateway implements Adapter.PaymentProcessor {
+            private final BatchingPaymentAdapter.SimulatedGateway api;
+
+            SynchronizedGateway(BatchingPaymentAdapter.SimulatedGateway api) {
+                this.api = api;
+            }
+
+            @Override
+            public synchronized void pay(double amount) {
+                api.makePayment(amount);
+            }
+        }
+
+        public static void main(String[] args) {
+            int payments = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+            long latencyMicros = args.length > 1 ? Long.parseLong(args[1]) : 10_000;
+            int poolThreads = 200;
+            int maxConcurrent = 10_000;
+            Duration timeout = Duration.ofSeconds(60);
+            BatchingPaymentAdapter.SimulatedGateway api = new BatchingPaymentAdapter.SimulatedGateway(latencyMicros);
+            Adapter.PaymentProcessor gateway = api::makePayment;
+
+            System.out.printf("%,d payments, %.1f ms gateway latency%n", payments, latencyMicros / 1e3);
+            try (VirtualThreadPaymentAdapter pool = platformPool(gateway, poolThreads, timeout)) {
+                run("fixed pool, " + poolThreads + " threads", pool, payments);
+            }
+            if (!isVirtualThreadsAvailable()) {
+                System.out.println("virtual threads: not available on Java " + Runtime.version().feature()
+                        + " (needs 21+), skipped");
+                return;
+            }
+            try (VirtualThreadPaymentAdapter virtual = virtualThreads(gateway, maxConcurrent, timeout)) {
+                run("virtual threads, " + maxConcurrent + " permits", virtual, payments);
+            }
+
+            // Few payments: a synchronized gateway serializes them anyway
+            try (VirtualThreadPaymentAdapter pinned =
+                         virtualThreads(new SynchronizedGateway(api), maxConcurrent, timeout)) {
+                pinned.onPinned(report -> { });  // the constructor's warning went to System.err already
+                run("virtual threads, synchronized gateway", pinned, 200);
+                List<String> warnings = pinned.getPinningWarnings();
+                System.out.printf("pinning: %d report(s), %d pinned event(s)%n", warnings.size(),
+                        pinned.getPinnedCount());
+                if (!warnings.isEmpty()) {
+                    System.out.println("  " + warnings.get(0));
+                }
+            }
+        }
+
+        private static void run(String label, VirtualThreadPaymentAdapter adapter, int payments) {
+            long start = System.nanoTime();
+            CompletableFuture<?>[] all = new CompletableFuture<?>[payments];
+            for (int i = 0; i < payments; i++) {
+                all[i] = adapter.payAsync(10.0);
+            }
+            CompletableFuture.allOf(all).join();
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%-40s %,8d ms  %,10.0f payments/s  timeouts=%d%n", label,
+                    TimeUnit.NANOSECONDS.toMillis(nanos), payments * 1e9 / nanos, adapter.getTimeoutCount());
+        }
+    }
+}